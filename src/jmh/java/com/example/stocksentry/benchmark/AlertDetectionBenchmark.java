@@ -0,0 +1,96 @@
+package com.example.stocksentry.benchmark;
+
+import com.example.stocksentry.dto.NewsResponse;
+import com.example.stocksentry.service.AlertKeywordMatcher;
+import com.example.stocksentry.service.NewsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// NewsService.shouldTriggerAlert over NewsAPI-shaped responses: ~90-char titles and ~250-char
+// descriptions, with a given share of articles carrying an event keyword at a random position.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AlertDetectionBenchmark {
+
+    private static final String[] WORDS = {
+            "shares", "rose", "fell", "after", "the", "company", "reported", "quarterly", "revenue", "guidance",
+            "analysts", "expect", "market", "investors", "stock", "price", "target", "upgrade", "downgrade",
+            "chip", "demand", "cloud", "growth", "regulators", "deal", "talks", "board", "outlook", "Nasdaq",
+            "billion", "percent", "CEO", "said", "on", "Tuesday", "amid", "concerns", "over", "supply"
+    };
+    private static final String[] KEYWORDS = {"earnings", "Acquisition", "MERGER"};
+
+    @Param({"20", "100"})
+    public int articlesPerResponse;
+
+    // Percentage of articles that mention an event keyword; 0 means every article is scanned
+    @Param({"0", "5", "50"})
+    public int hitPercent;
+
+    private NewsService newsService;
+    private NewsResponse[] responses;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        AlertKeywordMatcher matcher = new AlertKeywordMatcher(new DefaultResourceLoader());
+        set(matcher, "location", "classpath:alert-keywords.csv");
+        matcher.load();
+        newsService = new NewsService();
+        set(newsService, "keywordMatcher", matcher);
+
+        Random random = new Random(7);
+        responses = new NewsResponse[64];
+        for (int r = 0; r < responses.length; r++) {
+            List<NewsResponse.Article> articles = new ArrayList<>();
+            for (int i = 0; i < articlesPerResponse; i++) {
+                NewsResponse.Article article = new NewsResponse.Article();
+                article.setTitle(text(random, 90));
+                article.setDescription(text(random, 250));
+                article.setContent(text(random, 200));
+                if (random.nextInt(100) < hitPercent) {
+                    String description = article.getDescription();
+                    int at = random.nextInt(description.length());
+                    article.setDescription(description.substring(0, at) + " " + KEYWORDS[random.nextInt(KEYWORDS.length)]
+                            + " " + description.substring(at));
+                }
+                articles.add(article);
+            }
+            NewsResponse response = new NewsResponse();
+            response.setStatus("ok");
+            response.setTotalResults(articles.size());
+            response.setArticles(articles);
+            responses[r] = response;
+        }
+    }
+
+    @Benchmark
+    public boolean shouldTriggerAlert() {
+        NewsResponse response = responses[next++ & (responses.length - 1)];
+        return newsService.shouldTriggerAlert(response);
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
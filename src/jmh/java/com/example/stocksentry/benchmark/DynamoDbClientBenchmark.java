@@ -0,0 +1,106 @@
+package com.example.stocksentry.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of a batch of GetItem lookups (the recipient resolution pattern) with the blocking
+// client one call at a time versus the async client with every call in flight. Needs DynamoDB
+// Local: docker run -p 8000:8000 amazon/dynamodb-local, or point -Ddynamodb.endpoint elsewhere.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DynamoDbClientBenchmark {
+
+    private static final String TABLE = "BenchmarkUsers";
+
+    @Param({"10", "100"})
+    public int lookups;
+
+    private DynamoDbClient syncClient;
+    private DynamoDbAsyncClient asyncClient;
+    private List<Map<String, AttributeValue>> keys;
+
+    @Setup
+    public void setUp() {
+        URI endpoint = URI.create(System.getProperty("dynamodb.endpoint", "http://localhost:8000"));
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local"));
+        syncClient = DynamoDbClient.builder()
+                .endpointOverride(endpoint)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .httpClientBuilder(ApacheHttpClient.builder().maxConnections(200))
+                .build();
+        asyncClient = DynamoDbAsyncClient.builder()
+                .endpointOverride(endpoint)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(200))
+                .build();
+
+        try {
+            syncClient.deleteTable(DeleteTableRequest.builder().tableName(TABLE).build());
+        } catch (ResourceNotFoundException e) {
+            // First run
+        }
+        syncClient.createTable(CreateTableRequest.builder()
+                .tableName(TABLE)
+                .keySchema(KeySchemaElement.builder().attributeName("userId").keyType(KeyType.HASH).build())
+                .attributeDefinitions(AttributeDefinition.builder().attributeName("userId").attributeType(ScalarAttributeType.S).build())
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .build());
+
+        keys = new ArrayList<>();
+        for (int i = 0; i < lookups; i++) {
+            String userId = "user-" + i;
+            syncClient.putItem(PutItemRequest.builder()
+                    .tableName(TABLE)
+                    .item(Map.of(
+                            "userId", AttributeValue.builder().s(userId).build(),
+                            "name", AttributeValue.builder().s("User " + i).build(),
+                            "email", AttributeValue.builder().s(userId + "@example.com").build(),
+                            "phoneNumber", AttributeValue.builder().s("+1555000" + i).build()))
+                    .build());
+            keys.add(Map.of("userId", AttributeValue.builder().s(userId).build()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        syncClient.deleteTable(DeleteTableRequest.builder().tableName(TABLE).build());
+        syncClient.close();
+        asyncClient.close();
+    }
+
+    @Benchmark
+    public void syncSequential(Blackhole blackhole) {
+        for (Map<String, AttributeValue> key : keys) {
+            blackhole.consume(syncClient.getItem(GetItemRequest.builder().tableName(TABLE).key(key).build()).item());
+        }
+    }
+
+    @Benchmark
+    public void asyncPipelined(Blackhole blackhole) {
+        List<CompletableFuture<GetItemResponse>> responses = new ArrayList<>(keys.size());
+        for (Map<String, AttributeValue> key : keys) {
+            responses.add(asyncClient.getItem(GetItemRequest.builder().tableName(TABLE).key(key).build()));
+        }
+        for (CompletableFuture<GetItemResponse> response : responses) {
+            blackhole.consume(response.join().item());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.stocksentry.benchmark;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Just enough of DynamoDB for the read paths under benchmark: GetItem on Users, Query on
+// Watchlists by userId, and (segmented) Scan. Everything else is unsupported.
+final class InMemoryDynamoDbClient implements DynamoDbClient {
+
+    private final Map<String, Map<String, AttributeValue>> users = new ConcurrentHashMap<>();
+    private final Map<String, List<Map<String, AttributeValue>>> watchlistsByUser = new ConcurrentHashMap<>();
+
+    void putUser(Map<String, AttributeValue> item) {
+        users.put(item.get("userId").s(), item);
+    }
+
+    void putWatchlist(Map<String, AttributeValue> item) {
+        watchlistsByUser.computeIfAbsent(item.get("userId").s(), k -> new ArrayList<>()).add(item);
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        Map<String, AttributeValue> item = "Users".equals(request.tableName())
+                ? users.get(request.key().get("userId").s())
+                : null;
+        return GetItemResponse.builder().item(item).build();
+    }
+
+    @Override
+    public QueryResponse query(QueryRequest request) {
+        List<Map<String, AttributeValue>> items = List.of();
+        if ("Watchlists".equals(request.tableName()) && request.indexName() == null) {
+            items = watchlistsByUser.getOrDefault(request.expressionAttributeValues().get(":userId").s(), List.of());
+        }
+        return QueryResponse.builder().items(items).count(items.size()).build();
+    }
+
+    @Override
+    public ScanResponse scan(ScanRequest request) {
+        Collection<Map<String, AttributeValue>> source = switch (request.tableName()) {
+            case "Users" -> users.values();
+            case "Watchlists" -> watchlistsByUser.values().stream().flatMap(List::stream).toList();
+            default -> List.of();
+        };
+        int segment = request.segment() == null ? 0 : request.segment();
+        int totalSegments = request.totalSegments() == null ? 1 : request.totalSegments();
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (Map<String, AttributeValue> item : source) {
+            String key = ("Users".equals(request.tableName()) ? item.get("userId") : item.get("id")).s();
+            if (Math.floorMod(key.hashCode(), totalSegments) == segment) {
+                items.add(item);
+            }
+        }
+        return ScanResponse.builder().items(items).count(items.size()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return "dynamodb";
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.stocksentry.benchmark;
+
+import com.example.stocksentry.dto.User;
+import com.example.stocksentry.dto.Watchlist;
+import com.example.stocksentry.service.UserService;
+import com.example.stocksentry.service.WatchlistService;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// DynamoDB item -> DTO mapping used by WatchlistService.getWatchlists and UserService.getUser,
+// measured per item on the shapes those tables actually hold.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemMappingBenchmark {
+
+    @Param({"5", "50"})
+    public int symbolsPerWatchlist;
+
+    private Map<String, AttributeValue> watchlistItem;
+    private Map<String, AttributeValue> userItem;
+
+    @Setup
+    public void setUp() {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < symbolsPerWatchlist; i++) {
+            symbols.add("SYM" + i);
+        }
+        watchlistItem = new HashMap<>();
+        watchlistItem.put("id", AttributeValue.builder().s("9b2f6c1e-4a43-4d8e-9a55-0c6a3b7d2e11").build());
+        watchlistItem.put("userId", AttributeValue.builder().s("0f4e8a2d-7c19-4b6e-8d3a-5e1f9c2b7a64").build());
+        watchlistItem.put("name", AttributeValue.builder().s("Semiconductors").build());
+        watchlistItem.put("symbols", AttributeValue.builder().ss(symbols).build());
+        watchlistItem.put("version", AttributeValue.builder().n("3").build());
+
+        userItem = new HashMap<>();
+        userItem.put("userId", AttributeValue.builder().s("0f4e8a2d-7c19-4b6e-8d3a-5e1f9c2b7a64").build());
+        userItem.put("name", AttributeValue.builder().s("Jordan Example").build());
+        userItem.put("email", AttributeValue.builder().s("jordan@example.com").build());
+        userItem.put("phoneNumber", AttributeValue.builder().s("+15555550100").build());
+    }
+
+    @Benchmark
+    public Watchlist toWatchlist() {
+        return WatchlistService.toWatchlist(watchlistItem);
+    }
+
+    @Benchmark
+    public User toUser() {
+        return UserService.toUser(userItem);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.stocksentry.benchmark;
+
+import com.example.stocksentry.service.KeywordAutomaton;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Keyword detection over a batch of articles: the original concat + toLowerCase + contains
+// check versus the compiled Aho-Corasick automaton, with the 3 default terms and a large dictionary.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeywordMatchBenchmark {
+
+    private static final String[] WORDS = {
+            "shares", "rose", "fell", "after", "the", "company", "reported", "quarterly", "revenue", "guidance",
+            "analysts", "expect", "market", "investors", "stock", "price", "target", "upgrade", "downgrade",
+            "chip", "demand", "cloud", "growth", "regulators", "deal", "talks", "board", "outlook", "Nasdaq"
+    };
+
+    @Param({"3", "2000"})
+    public int dictionarySize;
+
+    private String[] titles;
+    private String[] descriptions;
+    private KeywordAutomaton automaton;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int articles = 100;
+        titles = new String[articles];
+        descriptions = new String[articles];
+        for (int i = 0; i < articles; i++) {
+            titles[i] = sentence(random, 12);
+            descriptions[i] = sentence(random, 40);
+        }
+        // Roughly one article in twenty mentions an event keyword, near the end of the description
+        for (int i = 0; i < articles; i += 20) {
+            descriptions[i] = descriptions[i] + " ahead of the Merger vote";
+        }
+
+        Map<String, String> dictionary = new LinkedHashMap<>();
+        dictionary.put("earnings", "EARNINGS");
+        dictionary.put("acquisition", "ACQUISITION");
+        dictionary.put("merger", "MERGER");
+        for (int i = dictionary.size(); i < dictionarySize; i++) {
+            dictionary.put("term" + Integer.toString(i, 36) + "x" + (char) ('a' + random.nextInt(26)), "CATEGORY" + (i % 32));
+        }
+        automaton = KeywordAutomaton.compile(dictionary);
+    }
+
+    @Benchmark
+    public void legacyContains(Blackhole blackhole) {
+        for (int i = 0; i < titles.length; i++) {
+            String text = (titles[i] + " " + descriptions[i]).toLowerCase();
+            blackhole.consume(text.contains("earnings") || text.contains("acquisition") || text.contains("merger"));
+        }
+    }
+
+    @Benchmark
+    public void automaton(Blackhole blackhole) {
+        for (int i = 0; i < titles.length; i++) {
+            blackhole.consume(automaton.match(titles[i], descriptions[i]));
+        }
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
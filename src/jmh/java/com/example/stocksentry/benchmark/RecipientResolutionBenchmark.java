@@ -0,0 +1,112 @@
+package com.example.stocksentry.benchmark;
+
+import com.example.stocksentry.dto.User;
+import com.example.stocksentry.repository.DynamoBatchWriter;
+import com.example.stocksentry.repository.SymbolSubscriptionIndex;
+import com.example.stocksentry.repository.UserRepository;
+import com.example.stocksentry.repository.WatchlistRepository;
+import com.example.stocksentry.service.RecipientResolver;
+import com.example.stocksentry.service.UserService;
+import com.example.stocksentry.service.WatchlistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Recipient resolution for one alert (what sendPersonalizedAlerts does before delivery): the
+// subscription-index lookup versus the full user/watchlist walk, with warm user and watchlist
+// caches over an in-memory table, so only the in-process cost is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecipientResolutionBenchmark {
+
+    private static final int UNIVERSE = 500;
+
+    @Param({"1000", "10000"})
+    public int users;
+
+    private RecipientResolver resolver;
+    private UserRepository userRepository;
+    private String[] symbols;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        InMemoryDynamoDbClient dynamoDb = new InMemoryDynamoDbClient();
+        Random random = new Random(11);
+        for (int u = 0; u < users; u++) {
+            String userId = "user-" + u;
+            Map<String, AttributeValue> user = new HashMap<>();
+            user.put("userId", AttributeValue.builder().s(userId).build());
+            user.put("name", AttributeValue.builder().s("User " + u).build());
+            user.put("email", AttributeValue.builder().s(userId + "@example.com").build());
+            user.put("phoneNumber", AttributeValue.builder().s("+1555" + (1000000 + u)).build());
+            dynamoDb.putUser(user);
+
+            // Two watchlists of 5-15 symbols, skewed towards the most popular tickers
+            for (int w = 0; w < 2; w++) {
+                Set<String> held = new LinkedHashSet<>();
+                int count = 5 + random.nextInt(11);
+                while (held.size() < count) {
+                    held.add("SYM" + (int) (UNIVERSE * Math.pow(random.nextDouble(), 3)));
+                }
+                Map<String, AttributeValue> watchlist = new HashMap<>();
+                watchlist.put("id", AttributeValue.builder().s(userId + "-w" + w).build());
+                watchlist.put("userId", AttributeValue.builder().s(userId).build());
+                watchlist.put("name", AttributeValue.builder().s("List " + w).build());
+                watchlist.put("symbols", AttributeValue.builder().ss(held).build());
+                dynamoDb.putWatchlist(watchlist);
+            }
+        }
+
+        DynamoDbAsyncClient asyncClient = new DynamoDbAsyncClient() {
+            @Override
+            public String serviceName() {
+                return "dynamodb";
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        SymbolSubscriptionIndex index = new SymbolSubscriptionIndex(dynamoDb);
+        index.rebuild();
+        DynamoBatchWriter batchWriter = new DynamoBatchWriter(dynamoDb, new SimpleMeterRegistry());
+        userRepository = new UserRepository(dynamoDb, asyncClient, batchWriter, 4, 1000, 0);
+        UserService userService = new UserService(userRepository, 256, 3600, new SimpleMeterRegistry());
+        WatchlistService watchlistService = new WatchlistService(new WatchlistRepository(dynamoDb, index, batchWriter),
+                null, null, users * 2L, 3600, new SimpleMeterRegistry());
+        resolver = new RecipientResolver(userService, watchlistService, index);
+
+        // Warm both caches the way a running instance would have them
+        for (int u = 0; u < users; u++) {
+            userService.getUser("user-" + u);
+            watchlistService.getWatchlists("user-" + u);
+        }
+
+        // Mix of popular and long-tail symbols
+        symbols = new String[64];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = "SYM" + (int) (UNIVERSE * Math.pow(random.nextDouble(), 2));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        userRepository.shutdown();
+    }
+
+    @Benchmark
+    public List<User> subscriptionIndex() {
+        return resolver.resolve(symbols[next++ & (symbols.length - 1)]);
+    }
+
+    @Benchmark
+    public List<User> userWatchlistWalk() {
+        return resolver.resolveByWalk(symbols[next++ & (symbols.length - 1)]);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.stocksentry.loadtest;
+
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.*;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Accepts every email, counting calls and recipients and keeping the most recent requests for inspection
+final class CapturingSesClient implements SesClient {
+
+    private static final int CAPTURED = 100;
+
+    private final DependencyCalls calls;
+    private final long latencyMs;
+    private final Deque<SesRequest> captured = new ConcurrentLinkedDeque<>();
+
+    CapturingSesClient(DependencyCalls calls, long latencyMs) {
+        this.calls = calls;
+        this.latencyMs = latencyMs;
+    }
+
+    List<SesRequest> captured() {
+        return new ArrayList<>(captured);
+    }
+
+    @Override
+    public SendBulkTemplatedEmailResponse sendBulkTemplatedEmail(SendBulkTemplatedEmailRequest request) {
+        call("SendBulkTemplatedEmail", request);
+        calls.record("SES", "recipients", request.destinations().size());
+        List<BulkEmailDestinationStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < request.destinations().size(); i++) {
+            statuses.add(BulkEmailDestinationStatus.builder()
+                    .status(BulkEmailStatus.SUCCESS)
+                    .messageId(UUID.randomUUID().toString())
+                    .build());
+        }
+        return SendBulkTemplatedEmailResponse.builder().status(statuses).build();
+    }
+
+    @Override
+    public SendEmailResponse sendEmail(SendEmailRequest request) {
+        call("SendEmail", request);
+        calls.record("SES", "recipients", request.destination().toAddresses().size());
+        return SendEmailResponse.builder().messageId(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public GetTemplateResponse getTemplate(GetTemplateRequest request) {
+        call("GetTemplate", request);
+        return GetTemplateResponse.builder()
+                .template(Template.builder().templateName(request.templateName()).build())
+                .build();
+    }
+
+    @Override
+    public CreateTemplateResponse createTemplate(CreateTemplateRequest request) {
+        call("CreateTemplate", request);
+        return CreateTemplateResponse.builder().build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void call(String operation, SesRequest request) {
+        calls.record("SES", operation);
+        captured.addLast(request);
+        while (captured.size() > CAPTURED) {
+            captured.pollFirst();
+        }
+        DependencyCalls.pause(latencyMs);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.stocksentry.loadtest;
+
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Async publishes land in the same capture as the sync client
+final class CapturingSnsAsyncClient implements SnsAsyncClient {
+
+    private final CapturingSnsClient sns;
+    private final Executor executor;
+
+    CapturingSnsAsyncClient(CapturingSnsClient sns, Executor executor) {
+        this.sns = sns;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<PublishResponse> publish(PublishRequest request) {
+        return CompletableFuture.supplyAsync(() -> sns.publish(request), executor);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
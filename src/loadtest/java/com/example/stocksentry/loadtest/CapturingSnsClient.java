@@ -0,0 +1,50 @@
+package com.example.stocksentry.loadtest;
+
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Accepts every publish, counting SMS and topic messages and keeping the most recent requests
+final class CapturingSnsClient implements SnsClient {
+
+    private static final int CAPTURED = 100;
+
+    private final DependencyCalls calls;
+    private final long latencyMs;
+    private final Deque<PublishRequest> captured = new ConcurrentLinkedDeque<>();
+
+    CapturingSnsClient(DependencyCalls calls, long latencyMs) {
+        this.calls = calls;
+        this.latencyMs = latencyMs;
+    }
+
+    List<PublishRequest> captured() {
+        return new ArrayList<>(captured);
+    }
+
+    @Override
+    public PublishResponse publish(PublishRequest request) {
+        calls.record("SNS", request.phoneNumber() != null ? "Publish(sms)" : "Publish(topic)");
+        captured.addLast(request);
+        while (captured.size() > CAPTURED) {
+            captured.pollFirst();
+        }
+        DependencyCalls.pause(latencyMs);
+        return PublishResponse.builder().messageId(UUID.randomUUID().toString()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.stocksentry.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Call counters shared by every stand-in, keyed "Dependency Operation" (e.g. "DynamoDB Users.Scan")
+final class DependencyCalls {
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    void record(String dependency, String operation) {
+        record(dependency, operation, 1);
+    }
+
+    void record(String dependency, String operation, long amount) {
+        counts.computeIfAbsent(dependency + " " + operation, k -> new LongAdder()).add(amount);
+    }
+
+    Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((key, count) -> snapshot.put(key, count.sum()));
+        return snapshot;
+    }
+
+    static Map<String, Long> delta(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> delta = new TreeMap<>();
+        after.forEach((key, count) -> {
+            long calls = count - before.getOrDefault(key, 0L);
+            if (calls != 0) {
+                delta.put(key, calls);
+            }
+        });
+        return delta;
+    }
+
+    static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
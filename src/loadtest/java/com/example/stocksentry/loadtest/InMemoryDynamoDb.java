@@ -0,0 +1,325 @@
+package com.example.stocksentry.loadtest;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DynamoDB stand-in for the load harness: one sorted map per table, keyed by the table's partition
+ * (and sort) key. Covers the calls the app makes - GetItem, PutItem, UpdateItem (SET / ADD /
+ * DELETE / REMOVE), DeleteItem, Query on the partition key or an attribute index, segmented and
+ * paginated Scan, BatchWriteItem - and counts each one as "Table.Operation". Condition
+ * expressions are not evaluated: a single node without contention passes them anyway.
+ */
+final class InMemoryDynamoDb implements DynamoDbClient {
+
+    // Table -> partition key, sort key (null when the table has none); see AWS_SETUP.md
+    private static final Map<String, String[]> KEY_SCHEMAS = Map.of(
+            "Users", new String[]{"userId", null},
+            "Watchlists", new String[]{"userId", "id"},
+            "Otps", new String[]{"otp", null},
+            "AlertLogs", new String[]{"id", null},
+            "SeenArticles", new String[]{"symbol", null},
+            "NewsWatermarks", new String[]{"symbol", null},
+            "ScannerLeases", new String[]{"leaseId", null});
+
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final Pattern KEY_CONDITION = Pattern.compile("\\s*(#?\\w+)\\s*=\\s*(:\\w+)\\s*");
+    private static final Pattern CLAUSE = Pattern.compile("\\b(SET|ADD|DELETE|REMOVE)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern IF_NOT_EXISTS = Pattern.compile("if_not_exists\\(\\s*(#?\\w+)\\s*,\\s*(:\\w+)\\s*\\)");
+
+    private final Map<String, ConcurrentSkipListMap<String, Map<String, AttributeValue>>> tables = new ConcurrentHashMap<>();
+    private final DependencyCalls calls;
+    private final long latencyMs;
+
+    InMemoryDynamoDb(DependencyCalls calls, long latencyMs) {
+        this.calls = calls;
+        this.latencyMs = latencyMs;
+    }
+
+    // Seeding path: no latency, not counted
+    void load(String tableName, Map<String, AttributeValue> item) {
+        table(tableName).put(key(tableName, item), item);
+    }
+
+    int size(String tableName) {
+        return table(tableName).size();
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest request) {
+        call(request.tableName(), "GetItem");
+        return GetItemResponse.builder()
+                .item(table(request.tableName()).get(key(request.tableName(), request.key())))
+                .build();
+    }
+
+    @Override
+    public PutItemResponse putItem(PutItemRequest request) {
+        call(request.tableName(), "PutItem");
+        Map<String, AttributeValue> item = new HashMap<>(request.item());
+        Map<String, AttributeValue> previous = table(request.tableName()).put(key(request.tableName(), item), item);
+        return PutItemResponse.builder()
+                .attributes(request.returnValues() == ReturnValue.ALL_OLD ? previous : null)
+                .build();
+    }
+
+    @Override
+    public UpdateItemResponse updateItem(UpdateItemRequest request) {
+        call(request.tableName(), "UpdateItem");
+        Map<String, AttributeValue> updated = table(request.tableName()).compute(key(request.tableName(), request.key()),
+                (k, existing) -> {
+                    Map<String, AttributeValue> item = new HashMap<>(existing == null ? request.key() : existing);
+                    applyUpdate(item, request.updateExpression(), request.expressionAttributeNames(),
+                            request.expressionAttributeValues());
+                    return item;
+                });
+        // ALL_NEW and UPDATED_NEW both get the whole new item; callers only read what they asked for
+        boolean returnNew = request.returnValues() == ReturnValue.ALL_NEW || request.returnValues() == ReturnValue.UPDATED_NEW;
+        return UpdateItemResponse.builder()
+                .attributes(returnNew ? updated : null)
+                .build();
+    }
+
+    @Override
+    public DeleteItemResponse deleteItem(DeleteItemRequest request) {
+        call(request.tableName(), "DeleteItem");
+        Map<String, AttributeValue> previous = table(request.tableName()).remove(key(request.tableName(), request.key()));
+        return request.returnValues() == ReturnValue.ALL_OLD && previous != null
+                ? DeleteItemResponse.builder().attributes(previous).build()
+                : DeleteItemResponse.builder().build();
+    }
+
+    @Override
+    public QueryResponse query(QueryRequest request) {
+        String tableName = request.tableName();
+        call(request.indexName() == null ? tableName : tableName + "/" + request.indexName(), "Query");
+
+        // Only partition-key equality ("name = :value") is used by the app
+        Matcher condition = KEY_CONDITION.matcher(request.keyConditionExpression());
+        if (!condition.matches()) {
+            throw new UnsupportedOperationException("Key condition not supported: " + request.keyConditionExpression());
+        }
+        String attribute = name(condition.group(1), request.expressionAttributeNames());
+        AttributeValue value = request.expressionAttributeValues().get(condition.group(2));
+
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> table = table(tableName);
+        String[] schema = schema(tableName);
+        List<Map<String, AttributeValue>> items;
+        if (request.indexName() == null && attribute.equals(schema[0])) {
+            items = schema[1] == null
+                    ? Optional.ofNullable(table.get(value.s())).map(List::of).orElse(List.of())
+                    : new ArrayList<>(table.subMap(value.s() + KEY_SEPARATOR, value.s() + (char) (KEY_SEPARATOR + 1)).values());
+        } else {
+            // Secondary index: a filter over the whole table is enough at this scale
+            items = table.values().stream().filter(item -> value.equals(item.get(attribute))).toList();
+        }
+        return QueryResponse.builder().items(items).count(items.size()).scannedCount(items.size()).build();
+    }
+
+    @Override
+    public ScanResponse scan(ScanRequest request) {
+        String tableName = request.tableName();
+        call(tableName, "Scan");
+        int segment = request.segment() == null ? 0 : request.segment();
+        int totalSegments = request.totalSegments() == null ? 1 : request.totalSegments();
+        int limit = request.limit() == null ? Integer.MAX_VALUE : request.limit();
+
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> table = table(tableName);
+        NavigableMap<String, Map<String, AttributeValue>> remaining =
+                request.hasExclusiveStartKey() && !request.exclusiveStartKey().isEmpty()
+                        ? table.tailMap(key(tableName, request.exclusiveStartKey()), false)
+                        : table;
+
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        boolean more = false;
+        for (Map.Entry<String, Map<String, AttributeValue>> entry : remaining.entrySet()) {
+            if (Math.floorMod(entry.getKey().hashCode(), totalSegments) != segment) {
+                continue;
+            }
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+            items.add(entry.getValue());
+        }
+
+        ScanResponse.Builder response = ScanResponse.builder().items(items).count(items.size()).scannedCount(items.size());
+        if (more) {
+            response.lastEvaluatedKey(keyAttributes(tableName, items.get(items.size() - 1)));
+        }
+        return response.build();
+    }
+
+    @Override
+    public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+        request.requestItems().forEach((tableName, writes) -> {
+            call(tableName, "BatchWriteItem");
+            for (WriteRequest write : writes) {
+                if (write.putRequest() != null) {
+                    Map<String, AttributeValue> item = new HashMap<>(write.putRequest().item());
+                    table(tableName).put(key(tableName, item), item);
+                } else if (write.deleteRequest() != null) {
+                    table(tableName).remove(key(tableName, write.deleteRequest().key()));
+                }
+            }
+        });
+        return BatchWriteItemResponse.builder().build();
+    }
+
+    @Override
+    public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+        Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+        request.requestItems().forEach((tableName, keys) -> {
+            call(tableName, "BatchGetItem");
+            List<Map<String, AttributeValue>> items = new ArrayList<>();
+            for (Map<String, AttributeValue> key : keys.keys()) {
+                Map<String, AttributeValue> item = table(tableName).get(key(tableName, key));
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            responses.put(tableName, items);
+        });
+        return BatchGetItemResponse.builder().responses(responses).build();
+    }
+
+    @Override
+    public ListTablesResponse listTables(ListTablesRequest request) {
+        call("-", "ListTables");
+        return ListTablesResponse.builder().tableNames(new TreeSet<>(KEY_SCHEMAS.keySet())).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void call(String table, String operation) {
+        calls.record("DynamoDB", table + "." + operation);
+        DependencyCalls.pause(latencyMs);
+    }
+
+    private ConcurrentSkipListMap<String, Map<String, AttributeValue>> table(String tableName) {
+        schema(tableName);
+        return tables.computeIfAbsent(tableName, k -> new ConcurrentSkipListMap<>());
+    }
+
+    private static String[] schema(String tableName) {
+        String[] schema = KEY_SCHEMAS.get(tableName);
+        if (schema == null) {
+            throw ResourceNotFoundException.builder().message("Requested resource not found: Table: " + tableName).build();
+        }
+        return schema;
+    }
+
+    private static String key(String tableName, Map<String, AttributeValue> item) {
+        String[] schema = schema(tableName);
+        String partition = item.get(schema[0]).s();
+        return schema[1] == null ? partition : partition + KEY_SEPARATOR + item.get(schema[1]).s();
+    }
+
+    private static Map<String, AttributeValue> keyAttributes(String tableName, Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        for (String attribute : schema(tableName)) {
+            if (attribute != null) {
+                key.put(attribute, item.get(attribute));
+            }
+        }
+        return key;
+    }
+
+    private static String name(String token, Map<String, String> names) {
+        return token.startsWith("#") ? names.get(token) : token;
+    }
+
+    // Enough of the update expression grammar for the app's writes: SET a = :v | a + :v | if_not_exists(a, :v) [+ :v],
+    // ADD a :v (number or set), DELETE a :v (set), REMOVE a
+    private static void applyUpdate(Map<String, AttributeValue> item, String expression,
+                                    Map<String, String> names, Map<String, AttributeValue> values) {
+        Matcher clause = CLAUSE.matcher(expression);
+        List<int[]> bounds = new ArrayList<>();
+        while (clause.find()) {
+            bounds.add(new int[]{clause.start(), clause.end()});
+        }
+        for (int i = 0; i < bounds.size(); i++) {
+            String keyword = expression.substring(bounds.get(i)[0], bounds.get(i)[1]).toUpperCase(Locale.ROOT);
+            int end = i + 1 < bounds.size() ? bounds.get(i + 1)[0] : expression.length();
+            // Commas inside if_not_exists(...) do not separate actions
+            for (String action : expression.substring(bounds.get(i)[1], end).split(",(?![^(]*\\))")) {
+                action = action.trim();
+                if (action.isEmpty()) {
+                    continue;
+                }
+                switch (keyword) {
+                    case "SET" -> {
+                        int equals = action.indexOf('=');
+                        String attribute = name(action.substring(0, equals).trim(), names);
+                        item.put(attribute, operand(item, action.substring(equals + 1).trim(), names, values));
+                    }
+                    case "ADD" -> {
+                        String[] parts = action.split("\\s+");
+                        String attribute = name(parts[0], names);
+                        item.put(attribute, add(item.get(attribute), values.get(parts[1])));
+                    }
+                    case "DELETE" -> {
+                        String[] parts = action.split("\\s+");
+                        String attribute = name(parts[0], names);
+                        AttributeValue current = item.get(attribute);
+                        if (current != null && current.hasSs()) {
+                            Set<String> remaining = new LinkedHashSet<>(current.ss());
+                            remaining.removeAll(values.get(parts[1]).ss());
+                            if (remaining.isEmpty()) {
+                                item.remove(attribute);
+                            } else {
+                                item.put(attribute, AttributeValue.builder().ss(remaining).build());
+                            }
+                        }
+                    }
+                    default -> item.remove(name(action, names));
+                }
+            }
+        }
+    }
+
+    private static AttributeValue operand(Map<String, AttributeValue> item, String operand,
+                                          Map<String, String> names, Map<String, AttributeValue> values) {
+        String[] terms = operand.split("\\s*([+-])\\s*(?![^(]*\\))", 2);
+        AttributeValue base;
+        Matcher ifNotExists = IF_NOT_EXISTS.matcher(terms[0]);
+        if (ifNotExists.matches()) {
+            base = Optional.ofNullable(item.get(name(ifNotExists.group(1), names))).orElse(values.get(ifNotExists.group(2)));
+        } else if (terms[0].startsWith(":")) {
+            base = values.get(terms[0]);
+        } else {
+            base = item.get(name(terms[0], names));
+        }
+        if (terms.length == 1) {
+            return base;
+        }
+        BigDecimal right = new BigDecimal(values.get(terms[1].trim()).n());
+        BigDecimal left = new BigDecimal(base.n());
+        boolean minus = operand.substring(terms[0].length()).trim().startsWith("-");
+        return AttributeValue.builder().n((minus ? left.subtract(right) : left.add(right)).toPlainString()).build();
+    }
+
+    private static AttributeValue add(AttributeValue current, AttributeValue value) {
+        if (value.n() != null) {
+            BigDecimal base = current == null ? BigDecimal.ZERO : new BigDecimal(current.n());
+            return AttributeValue.builder().n(base.add(new BigDecimal(value.n())).toPlainString()).build();
+        }
+        Set<String> union = new LinkedHashSet<>(current == null || !current.hasSs() ? List.of() : current.ss());
+        union.addAll(value.ss());
+        return AttributeValue.builder().ss(union).build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.stocksentry.loadtest;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Async view of the same tables; calls complete on the harness pool so callers are not blocked
+final class InMemoryDynamoDbAsync implements DynamoDbAsyncClient {
+
+    private final InMemoryDynamoDb tables;
+    private final Executor executor;
+
+    InMemoryDynamoDbAsync(InMemoryDynamoDb tables, Executor executor) {
+        this.tables = tables;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<GetItemResponse> getItem(GetItemRequest request) {
+        return CompletableFuture.supplyAsync(() -> tables.getItem(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<PutItemResponse> putItem(PutItemRequest request) {
+        return CompletableFuture.supplyAsync(() -> tables.putItem(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<BatchGetItemResponse> batchGetItem(BatchGetItemRequest request) {
+        return CompletableFuture.supplyAsync(() -> tables.batchGetItem(request), executor);
+    }
+
+    @Override
+    public CompletableFuture<QueryResponse> query(QueryRequest request) {
+        return CompletableFuture.supplyAsync(() -> tables.query(request), executor);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.stocksentry.loadtest;
+
+import com.example.stocksentry.StockSentryApplication;
+import com.example.stocksentry.config.AwsConfig;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+/**
+ * The app's components minus StockSentryApplication (no @EnableScheduling, so cycles only run when
+ * the harness starts them) and minus AwsConfig (the stand-ins are registered in its place).
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(basePackageClasses = StockSentryApplication.class, excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {StockSentryApplication.class, AwsConfig.class})
+})
+class LoadTestApplication {
+}
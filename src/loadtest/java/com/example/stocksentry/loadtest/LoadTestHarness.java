@@ -0,0 +1,163 @@
+package com.example.stocksentry.loadtest;
+
+import com.example.stocksentry.dto.ScanCycleStats;
+import com.example.stocksentry.service.NewsScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs full NewsScheduler cycles offline: synthetic Users/Watchlists in an in-memory DynamoDB, a
+ * local NewsAPI stub, and capturing SES/SNS clients, all wired into the real service layer. Reports
+ * cycle time, calls per dependency and alert throughput per cycle, and writes them as JSON so two
+ * runs can be compared.
+ *
+ * ./gradlew loadTest -PloadTestArgs="--loadtest.users=100000 --loadtest.news-latency-ms=200"
+ */
+public final class LoadTestHarness {
+
+    private static final long DELIVERY_TIMEOUT_MS = 600_000;
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> springArgs = new ArrayList<>();
+        LoadTestOptions options = LoadTestOptions.parse(args, springArgs);
+
+        DependencyCalls calls = new DependencyCalls();
+        ExecutorService standInExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "aws-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        InMemoryDynamoDb dynamoDb = new InMemoryDynamoDb(calls, options.awsLatencyMs);
+        CapturingSesClient ses = new CapturingSesClient(calls, options.awsLatencyMs);
+        CapturingSnsClient sns = new CapturingSnsClient(calls, options.awsLatencyMs);
+
+        long seedStart = System.currentTimeMillis();
+        SyntheticData.seed(dynamoDb, options);
+        System.out.println("Seeded " + dynamoDb.size("Users") + " users and " + dynamoDb.size("Watchlists")
+                + " watchlists in " + (System.currentTimeMillis() - seedStart) + " ms");
+
+        try (NewsApiStub newsApi = NewsApiStub.start(calls, options)) {
+            defaultArg(springArgs, "newsapi.base-url", newsApi.baseUrl());
+            defaultArg(springArgs, "newsapi.key", "loadtest");
+            // Cycles run back to back here, real ones are further apart than the news cache TTL
+            defaultArg(springArgs, "newsapi.cache.ttl-seconds", "1");
+            defaultArg(springArgs, "newsscheduler.mode", "FIXED");
+            defaultArg(springArgs, "logging.level.com.example.stocksentry", "INFO");
+            defaultArg(springArgs, "logging.level.software.amazon.awssdk", "WARN");
+
+            SpringApplication application = new SpringApplication(LoadTestApplication.class);
+            application.setWebApplicationType(WebApplicationType.NONE);
+            application.addInitializers(context -> {
+                ConfigurableListableBeanFactory beans = context.getBeanFactory();
+                beans.registerSingleton("dynamoDbClient", dynamoDb);
+                beans.registerSingleton("dynamoDbAsyncClient", new InMemoryDynamoDbAsync(dynamoDb, standInExecutor));
+                beans.registerSingleton("sesClient", ses);
+                beans.registerSingleton("snsClient", sns);
+                beans.registerSingleton("snsAsyncClient", new CapturingSnsAsyncClient(sns, standInExecutor));
+            });
+
+            try (ConfigurableApplicationContext context = application.run(springArgs.toArray(new String[0]))) {
+                NewsScheduler scheduler = context.getBean(NewsScheduler.class);
+                MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+                List<Map<String, Object>> cycles = new ArrayList<>();
+                for (int cycle = 1; cycle <= options.cycles; cycle++) {
+                    cycles.add(runCycle(cycle, scheduler, meterRegistry, calls));
+                }
+
+                Map<String, Object> report = new LinkedHashMap<>();
+                report.put("options", options.describe());
+                report.put("springArgs", springArgs);
+                report.put("cycles", cycles);
+                Files.createDirectories(options.report.toAbsolutePath().getParent());
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(options.report.toFile(), report);
+                System.out.println("Report written to " + options.report.toAbsolutePath());
+            }
+        } finally {
+            standInExecutor.shutdownNow();
+        }
+    }
+
+    private static Map<String, Object> runCycle(int cycle, NewsScheduler scheduler, MeterRegistry meterRegistry,
+                                                DependencyCalls calls) {
+        Map<String, Long> before = calls.snapshot();
+        double alertsBefore = alertsTriggered(meterRegistry);
+
+        long start = System.nanoTime();
+        scheduler.checkNewsForAllWatchlists();
+        long scanMs = (System.nanoTime() - start) / 1_000_000;
+        // Deliveries run on their own pool; wait for them so notification calls land in this cycle
+        awaitDelivery(meterRegistry);
+        long totalMs = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Long> delta = DependencyCalls.delta(before, calls.snapshot());
+        long alerts = Math.round(alertsTriggered(meterRegistry) - alertsBefore);
+        long emails = delta.getOrDefault("SES recipients", 0L);
+        long sms = delta.getOrDefault("SNS Publish(sms)", 0L);
+        ScanCycleStats stats = scheduler.getLastCycleStats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cycle", cycle);
+        result.put("scanMs", scanMs);
+        result.put("deliveryDrainMs", totalMs - scanMs);
+        if (stats != null) {
+            result.put("users", stats.getUsers());
+            result.put("distinctSymbols", stats.getDistinctSymbols());
+            result.put("newsApiRequests", stats.getNewsApiRequests());
+            result.put("failedSymbols", stats.getFailedSymbols());
+        }
+        result.put("alertsTriggered", alerts);
+        result.put("alertsPerSecond", perSecond(alerts, scanMs));
+        result.put("emails", emails);
+        result.put("sms", sms);
+        result.put("notificationsPerSecond", perSecond(emails + sms, totalMs));
+        result.put("calls", delta);
+
+        System.out.printf("Cycle %d: scan %d ms (+%d ms delivery), %d alerts (%.1f/s), %d emails, %d SMS (%.1f notifications/s)%n",
+                cycle, scanMs, totalMs - scanMs, alerts, perSecond(alerts, scanMs), emails, sms,
+                perSecond(emails + sms, totalMs));
+        delta.forEach((call, count) -> System.out.printf("  %-45s %d%n", call, count));
+        return result;
+    }
+
+    private static void awaitDelivery(MeterRegistry meterRegistry) {
+        long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (meterRegistry.get("stocksentry.delivery.queued").gauge().value() == 0
+                    && meterRegistry.get("stocksentry.delivery.active").gauge().value() == 0) {
+                return;
+            }
+            DependencyCalls.pause(20);
+        }
+        System.err.println("Alert delivery still busy after " + DELIVERY_TIMEOUT_MS + " ms");
+    }
+
+    private static double alertsTriggered(MeterRegistry meterRegistry) {
+        return meterRegistry.find("stocksentry.alerts.triggered").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static double perSecond(long count, long millis) {
+        return millis == 0 ? 0 : count * 1000.0 / millis;
+    }
+
+    // Harness defaults go on the command line (above application.properties) unless the caller set them
+    private static void defaultArg(List<String> springArgs, String name, String value) {
+        String prefix = "--" + name + "=";
+        if (springArgs.stream().noneMatch(arg -> arg.startsWith(prefix))) {
+            springArgs.add(prefix + value);
+        }
+    }
+}
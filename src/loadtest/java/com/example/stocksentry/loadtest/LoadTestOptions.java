@@ -0,0 +1,89 @@
+package com.example.stocksentry.loadtest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Harness settings, passed as --loadtest.name=value. Every other argument is handed to the Spring
+ * context unchanged, so the scan itself is tuned with the app's own properties
+ * (e.g. --newsscheduler.dedupe-symbols=false or --spring.threads.virtual.enabled=true).
+ */
+final class LoadTestOptions {
+
+    private static final String PREFIX = "--loadtest.";
+
+    final int users;
+    final int watchlistsPerUser;
+    final int symbolsPerWatchlist;
+    final int symbolUniverse;
+    final double phoneRatio;
+    final long seed;
+    final int cycles;
+
+    // NewsAPI stub: delay per request, articles per symbol, share of articles with an event keyword
+    final long newsLatencyMs;
+    final long newsJitterMs;
+    final int articlesPerSymbol;
+    final double hitRate;
+    final Path recordedDir;
+
+    // Added to every DynamoDB, SES and SNS call
+    final long awsLatencyMs;
+
+    final Path report;
+
+    private LoadTestOptions(Map<String, String> values) {
+        users = Integer.parseInt(values.getOrDefault("users", "10000"));
+        watchlistsPerUser = Integer.parseInt(values.getOrDefault("watchlists-per-user", "2"));
+        symbolsPerWatchlist = Integer.parseInt(values.getOrDefault("symbols-per-watchlist", "8"));
+        symbolUniverse = Integer.parseInt(values.getOrDefault("symbol-universe", "2000"));
+        phoneRatio = Double.parseDouble(values.getOrDefault("phone-ratio", "0.3"));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        cycles = Integer.parseInt(values.getOrDefault("cycles", "3"));
+        newsLatencyMs = Long.parseLong(values.getOrDefault("news-latency-ms", "150"));
+        newsJitterMs = Long.parseLong(values.getOrDefault("news-jitter-ms", "50"));
+        articlesPerSymbol = Integer.parseInt(values.getOrDefault("articles-per-symbol", "5"));
+        hitRate = Double.parseDouble(values.getOrDefault("hit-rate", "0.02"));
+        recordedDir = values.containsKey("recorded-dir") ? Path.of(values.get("recorded-dir")) : null;
+        awsLatencyMs = Long.parseLong(values.getOrDefault("aws-latency-ms", "0"));
+        report = Path.of(values.getOrDefault("report", "build/reports/loadtest/report.json"));
+    }
+
+    // Splits args into harness options and the arguments forwarded to Spring
+    static LoadTestOptions parse(String[] args, List<String> forwarded) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith(PREFIX)) {
+                int equals = arg.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException("Expected " + PREFIX + "name=value, got " + arg);
+                }
+                values.put(arg.substring(PREFIX.length(), equals), arg.substring(equals + 1));
+            } else {
+                forwarded.add(arg);
+            }
+        }
+        return new LoadTestOptions(values);
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("users", users);
+        description.put("watchlistsPerUser", watchlistsPerUser);
+        description.put("symbolsPerWatchlist", symbolsPerWatchlist);
+        description.put("symbolUniverse", symbolUniverse);
+        description.put("phoneRatio", phoneRatio);
+        description.put("seed", seed);
+        description.put("cycles", cycles);
+        description.put("newsLatencyMs", newsLatencyMs);
+        description.put("newsJitterMs", newsJitterMs);
+        description.put("articlesPerSymbol", articlesPerSymbol);
+        description.put("hitRate", hitRate);
+        description.put("recordedDir", recordedDir == null ? null : recordedDir.toString());
+        description.put("awsLatencyMs", awsLatencyMs);
+        return description;
+    }
+}
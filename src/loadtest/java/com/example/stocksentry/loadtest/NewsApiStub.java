@@ -0,0 +1,167 @@
+package com.example.stocksentry.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Local NewsAPI on an ephemeral port. /v2/everything answers after the configured delay with
+ * either recorded payloads (every *.json file in a directory, served in rotation) or synthetic
+ * articles for each symbol in q. Synthetic articles are always new, so every cycle has news to
+ * evaluate; hitRate of them carry an event keyword.
+ */
+final class NewsApiStub implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String[] KEYWORDS = {"earnings", "acquisition", "merger"};
+    private static final String[] WORDS = {
+            "shares", "rose", "fell", "after", "company", "reported", "revenue", "guidance", "analysts",
+            "market", "investors", "price", "target", "demand", "growth", "outlook", "billion", "percent"
+    };
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final DependencyCalls calls;
+    private final LoadTestOptions options;
+    private final List<byte[]> recorded;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private NewsApiStub(DependencyCalls calls, LoadTestOptions options) throws IOException {
+        this.calls = calls;
+        this.options = options;
+        this.recorded = options.recordedDir == null ? List.of() : loadRecorded(options.recordedDir);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "newsapi-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/v2/everything", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    static NewsApiStub start(DependencyCalls calls, LoadTestOptions options) throws IOException {
+        return new NewsApiStub(calls, options);
+    }
+
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            calls.record("NewsAPI", "/v2/everything");
+            long jitter = options.newsJitterMs > 0 ? ThreadLocalRandom.current().nextLong(options.newsJitterMs + 1) : 0;
+            DependencyCalls.pause(options.newsLatencyMs + jitter);
+
+            byte[] body = recorded.isEmpty()
+                    ? synthetic(query(exchange.getRequestURI().getRawQuery()))
+                    : recorded.get((int) (sequence.getAndIncrement() % recorded.size()));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] synthetic(Map<String, String> query) throws IOException {
+        List<String> symbols = new ArrayList<>();
+        for (String term : query.getOrDefault("q", "").split(" OR ")) {
+            if (!term.isBlank()) {
+                symbols.add(term.replace("\"", "").trim());
+            }
+        }
+        int pageSize = Integer.parseInt(query.getOrDefault("pageSize", "100"));
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        int total = symbols.size() * options.articlesPerSymbol;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> articles = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = (page - 1) * pageSize; i < Math.min(total, page * pageSize); i++) {
+            String symbol = symbols.get(i % symbols.size());
+            long id = sequence.incrementAndGet();
+            String description = sentence(random, 30);
+            if (random.nextDouble() < options.hitRate) {
+                description = description + " ahead of the " + KEYWORDS[random.nextInt(KEYWORDS.length)] + " announcement";
+            }
+            Map<String, Object> article = new LinkedHashMap<>();
+            article.put("source", Map.of("id", "loadtest", "name", "Load Test Wire"));
+            article.put("title", symbol + " " + sentence(random, 10));
+            article.put("description", description);
+            article.put("url", "https://news.loadtest.example.com/" + symbol + "/" + id);
+            // Newest first, as with sortBy=publishedAt
+            article.put("publishedAt", now.minusSeconds(i).toString());
+            article.put("content", sentence(random, 40));
+            articles.add(article);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "ok");
+        response.put("totalResults", total);
+        response.put("articles", articles);
+        return OBJECT_MAPPER.writeValueAsBytes(response);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringJoiner sentence = new StringJoiner(" ");
+        for (int i = 0; i < words; i++) {
+            sentence.add(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static List<byte[]> loadRecorded(Path directory) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                payloads.add(Files.readAllBytes(file));
+            }
+        }
+        if (payloads.isEmpty()) {
+            throw new IOException("No *.json NewsAPI payloads in " + directory);
+        }
+        return payloads;
+    }
+}
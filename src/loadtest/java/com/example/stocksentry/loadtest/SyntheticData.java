@@ -0,0 +1,66 @@
+package com.example.stocksentry.loadtest;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.*;
+
+/**
+ * Seeded Users/Watchlists generator. Symbol popularity is skewed - a few tickers sit in most
+ * watchlists, a long tail in very few - since that is what decides both the dedupe savings and
+ * the fan-out of a single alert. The same seed always produces the same tables.
+ */
+final class SyntheticData {
+
+    private SyntheticData() {
+    }
+
+    static void seed(InMemoryDynamoDb dynamoDb, LoadTestOptions options) {
+        Random random = new Random(options.seed);
+        String[] symbols = new String[options.symbolUniverse];
+        for (int rank = 0; rank < symbols.length; rank++) {
+            symbols[rank] = ticker(rank);
+        }
+
+        for (int u = 0; u < options.users; u++) {
+            String userId = new UUID(random.nextLong(), random.nextLong()).toString();
+            Map<String, AttributeValue> user = new HashMap<>();
+            user.put("userId", s(userId));
+            user.put("name", s("Load Test User " + u));
+            user.put("email", s("user" + u + "@loadtest.example.com"));
+            if (random.nextDouble() < options.phoneRatio) {
+                user.put("phoneNumber", s(String.format("+1555%07d", u % 10_000_000)));
+            }
+            dynamoDb.load("Users", user);
+
+            for (int w = 0; w < options.watchlistsPerUser; w++) {
+                int size = Math.min(options.symbolsPerWatchlist, symbols.length);
+                Set<String> held = new LinkedHashSet<>();
+                while (held.size() < size) {
+                    // Cubing a uniform draw puts most picks among the lowest (most popular) ranks
+                    held.add(symbols[(int) (symbols.length * Math.pow(random.nextDouble(), 3))]);
+                }
+                Map<String, AttributeValue> watchlist = new HashMap<>();
+                watchlist.put("userId", s(userId));
+                watchlist.put("id", s(new UUID(random.nextLong(), random.nextLong()).toString()));
+                watchlist.put("name", s("Watchlist " + (w + 1)));
+                watchlist.put("symbols", AttributeValue.builder().ss(held).build());
+                watchlist.put("version", AttributeValue.builder().n("1").build());
+                dynamoDb.load("Watchlists", watchlist);
+            }
+        }
+    }
+
+    // 0 -> AAA, 1 -> AAB, ...: ticker-shaped and unique per rank
+    static String ticker(int rank) {
+        char[] letters = new char[Math.max(3, (int) Math.ceil(Math.log(rank + 1.0) / Math.log(26)))];
+        for (int i = letters.length - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + rank % 26);
+            rank /= 26;
+        }
+        return new String(letters);
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+}
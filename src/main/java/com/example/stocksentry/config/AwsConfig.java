@@ -1,16 +1,31 @@
 package com.example.stocksentry.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+import software.amazon.awssdk.services.ses.SesAsyncClient;
 import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class AwsConfig {
@@ -24,6 +39,41 @@ public class AwsConfig {
     @Value("${aws.secretAccessKey}")
     private String secretAccessKey;
 
+    // Optional endpoint override, e.g. http://localhost:8000 for DynamoDB Local
+    @Value("${aws.dynamodb.endpoint:}")
+    private String dynamoDbEndpoint;
+
+    // Sync clients: Apache pool size per client
+    @Value("${aws.http.max-connections:100}")
+    private int maxConnections;
+
+    // Async clients: max concurrent requests per client on the shared event loop
+    @Value("${aws.http.max-concurrency:200}")
+    private int maxConcurrency;
+
+    @Value("${aws.http.event-loop-threads:0}")
+    private int eventLoopThreads;
+
+    @Value("${aws.http.connection-ttl-ms:60000}")
+    private long connectionTtlMs;
+
+    @Value("${aws.http.connection-timeout-ms:2000}")
+    private long connectionTimeoutMs;
+
+    @Value("${aws.http.socket-timeout-ms:10000}")
+    private long socketTimeoutMs;
+
+    @Value("${aws.http.api-call-timeout-ms:30000}")
+    private long apiCallTimeoutMs;
+
+    private SdkEventLoopGroup eventLoopGroup;
+
+    private final MeterRegistry meterRegistry;
+
+    public AwsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @PostConstruct
     public void validateConfig() {
         if (accessKeyId == null || accessKeyId.isEmpty()) {
@@ -35,39 +85,121 @@ public class AwsConfig {
         if (region == null || region.isEmpty()) {
             throw new IllegalStateException("AWS Region is not configured");
         }
-        
+
         System.out.println("AWS Configuration validated successfully");
         System.out.println("Region: " + region);
         System.out.println("Access Key ID: " + accessKeyId.substring(0, 8) + "...");
     }
 
     @Bean
-    public DynamoDbClient dynamoDbClient() {
-        return DynamoDbClient.builder()
+    public AwsCredentialsProvider awsCredentialsProvider() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey));
+    }
+
+    // One Netty event loop shared by every async client; clients do not close a group they were given
+    @Bean
+    public SdkEventLoopGroup awsEventLoopGroup() {
+        eventLoopGroup = eventLoopThreads > 0 ? SdkEventLoopGroup.builder().numberOfThreads(eventLoopThreads).build()
+                : SdkEventLoopGroup.builder().build();
+        return eventLoopGroup;
+    }
+
+    @PreDestroy
+    public void shutdownEventLoop() {
+        if (eventLoopGroup != null) {
+            eventLoopGroup.eventLoopGroup().shutdownGracefully();
+        }
+    }
+
+    @Bean
+    public DynamoDbClient dynamoDbClient(AwsCredentialsProvider awsCredentialsProvider) {
+        DynamoDbClientBuilder builder = DynamoDbClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)
-                ))
-                .build();
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(syncHttpClient())
+                .overrideConfiguration(overrideConfiguration());
+        if (!dynamoDbEndpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(dynamoDbEndpoint));
+        }
+        return builder.build();
     }
 
     @Bean
-    public SesClient sesClient() {
+    public SesClient sesClient(AwsCredentialsProvider awsCredentialsProvider) {
         return SesClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)
-                ))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(syncHttpClient())
+                .overrideConfiguration(overrideConfiguration())
                 .build();
     }
 
     @Bean
-    public SnsClient snsClient() {
+    public SnsClient snsClient(AwsCredentialsProvider awsCredentialsProvider) {
         return SnsClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)
-                ))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(syncHttpClient())
+                .overrideConfiguration(overrideConfiguration())
+                .build();
+    }
+
+    @Bean
+    public DynamoDbAsyncClient dynamoDbAsyncClient(AwsCredentialsProvider awsCredentialsProvider, SdkEventLoopGroup awsEventLoopGroup) {
+        DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(asyncHttpClient(awsEventLoopGroup))
+                .overrideConfiguration(overrideConfiguration());
+        if (!dynamoDbEndpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(dynamoDbEndpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public SesAsyncClient sesAsyncClient(AwsCredentialsProvider awsCredentialsProvider, SdkEventLoopGroup awsEventLoopGroup) {
+        return SesAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(asyncHttpClient(awsEventLoopGroup))
+                .overrideConfiguration(overrideConfiguration())
+                .build();
+    }
+
+    @Bean
+    public SnsAsyncClient snsAsyncClient(AwsCredentialsProvider awsCredentialsProvider, SdkEventLoopGroup awsEventLoopGroup) {
+        return SnsAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClientBuilder(asyncHttpClient(awsEventLoopGroup))
+                .overrideConfiguration(overrideConfiguration())
+                .build();
+    }
+
+    // Passed as builders so each SDK client owns (and closes) its connection pool
+    private ApacheHttpClient.Builder syncHttpClient() {
+        return ApacheHttpClient.builder()
+                .maxConnections(maxConnections)
+                .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                .socketTimeout(Duration.ofMillis(socketTimeoutMs));
+    }
+
+    private NettyNioAsyncHttpClient.Builder asyncHttpClient(SdkEventLoopGroup eventLoopGroup) {
+        return NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(eventLoopGroup)
+                .maxConcurrency(maxConcurrency)
+                .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                .readTimeout(Duration.ofMillis(socketTimeoutMs))
+                .writeTimeout(Duration.ofMillis(socketTimeoutMs));
+    }
+
+    private ClientOverrideConfiguration overrideConfiguration() {
+        return ClientOverrideConfiguration.builder()
+                .apiCallTimeout(Duration.ofMillis(apiCallTimeoutMs))
+                .addExecutionInterceptor(new AwsMetricsInterceptor(meterRegistry))
                 .build();
     }
 }
@@ -0,0 +1,122 @@
+package com.example.stocksentry.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every AWS SDK call as stocksentry.aws.requests (service, operation, table, outcome). For
+ * DynamoDB it also asks for and records consumed capacity as stocksentry.dynamodb.consumed.capacity,
+ * so read/write cost shows up per operation and table (i.e. per repository method).
+ */
+public class AwsMetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START_NANOS = new ExecutionAttribute<>("StockSentryStartNanos");
+
+    private final MeterRegistry meterRegistry;
+
+    public AwsMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        return withConsumedCapacity(context.request());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        record(context.request(), executionAttributes, "success");
+
+        Object consumed = context.response().getValueForField("ConsumedCapacity", Object.class).orElse(null);
+        if (consumed instanceof ConsumedCapacity capacity) {
+            recordCapacity(executionAttributes, capacity);
+        } else if (consumed instanceof List<?> capacities) {
+            for (Object capacity : capacities) {
+                if (capacity instanceof ConsumedCapacity single) {
+                    recordCapacity(executionAttributes, single);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        record(context.request(), executionAttributes, "failure");
+    }
+
+    private void record(SdkRequest request, ExecutionAttributes executionAttributes, String outcome) {
+        Long start = executionAttributes.getAttribute(START_NANOS);
+        if (start == null) {
+            return;
+        }
+        Timer.builder("stocksentry.aws.requests")
+                .description("AWS SDK call latency")
+                .tag("service", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME)))
+                .tag("operation", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME)))
+                .tag("table", request.getValueForField("TableName", String.class).orElse("none"))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordCapacity(ExecutionAttributes executionAttributes, ConsumedCapacity capacity) {
+        if (capacity.capacityUnits() == null) {
+            return;
+        }
+        DistributionSummary.builder("stocksentry.dynamodb.consumed.capacity")
+                .description("DynamoDB capacity units consumed per call")
+                .baseUnit("units")
+                .tag("operation", String.valueOf(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME)))
+                .tag("table", capacity.tableName() == null ? "none" : capacity.tableName())
+                .register(meterRegistry)
+                .record(capacity.capacityUnits());
+    }
+
+    // Requests consumed capacity on the DynamoDB calls the repositories make, unless the caller already chose
+    private static SdkRequest withConsumedCapacity(SdkRequest request) {
+        if (request instanceof GetItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof PutItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof UpdateItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof DeleteItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof QueryRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof ScanRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof BatchWriteItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof BatchGetItemRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof TransactWriteItemsRequest r && r.returnConsumedCapacity() == null) {
+            return r.toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        return request;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.stocksentry.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class NewsApiConfig {
+
+    @Value("${newsapi.base-url:https://newsapi.org}")
+    private String baseUrl;
+
+    // Upper bound on concurrent NewsAPI requests; extra requests wait for a pooled connection
+    @Value("${newsapi.max-in-flight:64}")
+    private int maxInFlight;
+
+    @Value("${newsapi.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${newsapi.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${newsapi.http.pending-acquire-timeout-ms:60000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${newsapi.http.max-response-bytes:4194304}")
+    private int maxResponseBytes;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider newsApiConnectionProvider() {
+        return ConnectionProvider.builder("newsapi")
+                .maxConnections(maxInFlight)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+    }
+
+    @Bean
+    public WebClient newsApiWebClient(WebClient.Builder builder, ConnectionProvider newsApiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(newsApiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+
+        return builder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .build();
+    }
+}
@@ -4,11 +4,15 @@ package com.example.stocksentry.controller;
 import com.example.stocksentry.dto.NewsResponse;
 import com.example.stocksentry.service.NewsService;
 import com.example.stocksentry.service.NotificationService;
+import com.example.stocksentry.service.ShardCoordinator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/news")
@@ -20,9 +24,17 @@ public class NewsController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
     @GetMapping("/{symbol}")
-    public NewsResponse getNews(@PathVariable String symbol) {
-        return newsService.fetchNewsForStock(symbol);
+    public Mono<NewsResponse> getNews(@PathVariable String symbol) {
+        return newsService.getNews(symbol);
+    }
+
+    @GetMapping("/cluster/status")
+    public Map<String, Object> getClusterStatus() {
+        return shardCoordinator.getStatus();
     }
 
     @GetMapping("/test-sns/{symbol}")
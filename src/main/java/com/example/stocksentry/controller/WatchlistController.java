@@ -3,14 +3,20 @@ package com.example.stocksentry.controller;
 
 
 
+import com.example.stocksentry.dto.ImportRecord;
+import com.example.stocksentry.dto.ImportSummary;
 import com.example.stocksentry.dto.ShareRequest;
 import com.example.stocksentry.dto.Watchlist;
 
 import com.example.stocksentry.exception.StockSentryException;
 import com.example.stocksentry.repository.OtpRepository;
+import com.example.stocksentry.service.BulkImportService;
 import com.example.stocksentry.service.WatchlistService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -24,14 +30,24 @@ public class WatchlistController {
     @Autowired
     private OtpRepository otpRepository;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @PostMapping
     public void createWatchlist(@RequestBody Watchlist watchlist) {
         watchlistService.createWatchlist(watchlist.getId(), watchlist.getUserId(), watchlist.getName(), watchlist.getSymbols());
     }
 
+    // 409 if a version is sent and the watchlist has been changed since; returns the new version
     @PostMapping("/upsert")
-    public void upsertWatchlist(@RequestBody Watchlist watchlist) {
-        watchlistService.upsertWatchlist(watchlist);
+    public long upsertWatchlist(@RequestBody Watchlist watchlist) {
+        return watchlistService.upsertWatchlist(watchlist);
+    }
+
+    // Users and watchlists as NDJSON (one record per line) or a JSON array; decoded record by record
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ImportSummary> bulkImport(@RequestBody Flux<ImportRecord> records) {
+        return bulkImportService.importRecords(records);
     }
 
     @GetMapping("/{userId}")
@@ -40,18 +56,20 @@ public class WatchlistController {
     }
 
     @DeleteMapping("/{watchlistId}")
-    public void deleteWatchlist(@PathVariable String watchlistId) {
-        watchlistService.deleteWatchlist(watchlistId);
+    public void deleteWatchlist(@PathVariable String watchlistId, @RequestParam(required = false) String userId) {
+        watchlistService.deleteWatchlist(userId, watchlistId);
     }
 
     @PostMapping("/{watchlistId}/symbols")
-    public void addSymbols(@PathVariable String watchlistId, @RequestBody List<String> symbols) {
-        watchlistService.addSymbols(watchlistId, symbols);
+    public void addSymbols(@PathVariable String watchlistId, @RequestParam(required = false) String userId,
+                           @RequestBody List<String> symbols) {
+        watchlistService.addSymbols(userId, watchlistId, symbols);
     }
 
     @DeleteMapping("/{watchlistId}/symbols/{symbol}")
-    public void removeSymbol(@PathVariable String watchlistId, @PathVariable String symbol) {
-        watchlistService.removeSymbol(watchlistId, symbol);
+    public void removeSymbol(@PathVariable String watchlistId, @PathVariable String symbol,
+                             @RequestParam(required = false) String userId) {
+        watchlistService.removeSymbol(userId, watchlistId, symbol);
     }
 
     @PostMapping("/share")
@@ -59,6 +77,12 @@ public class WatchlistController {
         return watchlistService.shareWatchlist(shareRequest.getWatchlistId(), shareRequest.getRecipientEmail());
     }
 
+    // Single use: consumes the OTP and copies the shared watchlist into userId's watchlists
+    @PostMapping("/share/{otp}/redeem")
+    public Watchlist redeemSharedWatchlist(@PathVariable String otp, @RequestParam String userId) {
+        return watchlistService.redeemShare(otp, userId);
+    }
+
     @GetMapping("/share/{otp}")
     public Watchlist getSharedWatchlist(@PathVariable String otp, @RequestParam String userId) {
         String watchlistId = otpRepository.getWatchlistIdByOtp(otp);
@@ -0,0 +1,17 @@
+package com.example.stocksentry.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// One line of a bulk import body: either a user or a watchlist
+@Data
+public class ImportRecord {
+    private String type;        // "user" or "watchlist"; inferred from id/symbols when absent
+    private String userId;      // Required for both kinds
+    private String id;          // Watchlist ID, generated when absent
+    private String name;
+    private String email;
+    private String phoneNumber;
+    private List<String> symbols;
+}
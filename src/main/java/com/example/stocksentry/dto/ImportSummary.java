@@ -0,0 +1,25 @@
+package com.example.stocksentry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ImportSummary {
+    private long received;      // Records parsed from the body
+    private long users;         // User records written
+    private long watchlists;    // Watchlist records written
+    private long failed;
+    private long durationMs;
+    private String aborted;     // Set when the body stopped parsing part way; earlier records are still written
+    private List<Failure> failures; // Per-record failures, capped at import.max-reported-failures
+
+    @Data
+    @AllArgsConstructor
+    public static class Failure {
+        private long index;     // 0-based position in the body
+        private String key;     // userId or userId/watchlistId, when known
+        private String error;
+    }
+}
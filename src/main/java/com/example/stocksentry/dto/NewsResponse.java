@@ -1,5 +1,6 @@
 package com.example.stocksentry.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import java.util.List;
 
@@ -9,6 +10,10 @@ public class NewsResponse {
     private int totalResults;
     private List<Article> articles;
 
+    // Set on polled responses whose last page was still full when the page limit was reached
+    @JsonIgnore
+    private boolean truncated;
+
     @Data
     public static class Article {
         private String title;
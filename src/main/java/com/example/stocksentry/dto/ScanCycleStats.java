@@ -0,0 +1,16 @@
+package com.example.stocksentry.dto;
+
+import lombok.Data;
+
+@Data
+public class ScanCycleStats {
+    private String startedAt;         // cycle start time (ISO-8601)
+    private long durationMs;          // wall-clock time of the whole cycle
+    private int users;                // users visited while collecting symbols
+    private int totalOccurrences;     // symbol entries across all watchlists
+    private int distinctSymbols;      // distinct symbols across all watchlists
+    private int callsSaved;           // totalOccurrences - distinctSymbols
+    private int newsApiRequests;      // NewsAPI calls issued (fewer than distinctSymbols when batching)
+    private int otherNodeSymbols;     // distinct symbols whose shard is leased by another node
+    private int failedSymbols;        // symbols whose fetch/evaluation threw
+}
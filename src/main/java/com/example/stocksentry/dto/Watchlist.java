@@ -10,4 +10,5 @@ public class Watchlist {
     private String userId;  // To associate with a user
     private String name;  // Watchlist name (e.g., "My Tech Stocks")
     private List<String> symbols;  // List of stock symbols (e.g., ["AAPL", "GOOGL"])
+    private Long version;  // Bumped on every write; send it back on upsert to detect concurrent edits
 }
@@ -0,0 +1,12 @@
+package com.example.stocksentry.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Optimistic version check failed: the watchlist changed after the caller read it
+@ResponseStatus(HttpStatus.CONFLICT)
+public class WatchlistConflictException extends StockSentryException {
+    public WatchlistConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,39 +1,283 @@
 package com.example.stocksentry.repository;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.model.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Write-behind log of sent alerts. logAlert only enqueues; a background flusher writes the buffer
+ * to AlertLogs through BatchWriteItem whenever a full batch is waiting or the flush interval
+ * passes. When the in-memory buffer is full the record either blocks the caller (BLOCK) or is
+ * appended to a local spill file that is replayed once DynamoDB catches up (SPILL). Replays run
+ * only after a clean flush and back off while they keep failing.
+ */
 @Repository
 public class AlertLogRepository {
 
-    private final DynamoDbClient dynamoDbClient;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    public AlertLogRepository(DynamoDbClient dynamoDbClient) {
-        this.dynamoDbClient = dynamoDbClient;
+    private final DynamoBatchWriter batchWriter;
+
+    @Value("${alertlog.buffer.capacity:10000}")
+    private int capacity;
+
+    @Value("${alertlog.buffer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${alertlog.buffer.overflow:SPILL}")
+    private String overflowPolicy;
+
+    @Value("${alertlog.buffer.block-timeout-ms:5000}")
+    private long blockTimeoutMs;
+
+    @Value("${alertlog.buffer.spill-file:${java.io.tmpdir}/stocksentry-alertlog-spill.ndjson}")
+    private String spillFile;
+
+    @Value("${alertlog.spill.replay-max-backoff-ms:60000}")
+    private long replayMaxBackoffMs;
+
+    private BlockingQueue<Map<String, AttributeValue>> buffer;
+    private ScheduledExecutorService flusher;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object spillLock = new Object();
+    private long replayBackoffMs;
+    private long nextReplayAt;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter dropped;
+
+    public AlertLogRepository(DynamoBatchWriter batchWriter, MeterRegistry meterRegistry) {
+        this.batchWriter = batchWriter;
+        this.meterRegistry = meterRegistry;
+        this.flushTimer = Timer.builder("stocksentry.alertlog.flush")
+                .description("One batch write of buffered or replayed alert log records")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("stocksentry.alertlog.batch.size")
+                .description("Records per alert log batch write")
+                .register(meterRegistry);
+        this.written = records("written", meterRegistry);
+        this.spilled = records("spilled", meterRegistry);
+        this.dropped = records("dropped", meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        buffer = new LinkedBlockingQueue<>(capacity);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "alertlog-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("stocksentry.alertlog.buffered", buffer, BlockingQueue::size)
+                .description("Alert log records waiting in memory for the next flush")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushSafely();
     }
 
     public void logAlert(String symbol, String message) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
+        item.put("symbol", AttributeValue.builder().s(symbol).build());
+        item.put("message", AttributeValue.builder().s(message).build());
+        item.put("timestamp", AttributeValue.builder().s(java.time.Instant.now().toString()).build());
+
+        if (!buffer.offer(item)) {
+            overflow(item);
+        }
+        if (buffer.size() >= DynamoBatchWriter.MAX_BATCH_SIZE && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final flush in stop() picks the record up
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private static Counter records(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("stocksentry.alertlog.records")
+                .description("Alert log records by outcome; spilled counts each record once, however often it is replayed")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void overflow(Map<String, AttributeValue> item) {
+        if ("BLOCK".equalsIgnoreCase(overflowPolicy)) {
+            try {
+                if (buffer.offer(item, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dropped.increment();
+            System.err.println("Alert log buffer full, dropping alert for " + item.get("symbol").s());
+            return;
+        }
+        spill(List.of(item), true);
+    }
+
+    // Runs on the flusher thread only (or after it has stopped), so replay state needs no locking
+    void flushSafely() {
+        flushScheduled.set(false);
         try {
-            Map<String, AttributeValue> item = new HashMap<>();
-            item.put("id", AttributeValue.builder().s(UUID.randomUUID().toString()).build());
-            item.put("symbol", AttributeValue.builder().s(symbol).build());
-            item.put("message", AttributeValue.builder().s(message).build());
-            item.put("timestamp", AttributeValue.builder().s(java.time.Instant.now().toString()).build());
-
-            PutItemRequest request = PutItemRequest.builder()
-                    .tableName("AlertLogs")
-                    .item(item)
-                    .build();
-
-            dynamoDbClient.putItem(request);
+            boolean flushed = true;
+            while (!buffer.isEmpty()) {
+                List<Map<String, AttributeValue>> batch = new ArrayList<>();
+                buffer.drainTo(batch, capacity);
+                flushed &= write(batch, false);
+            }
+            // While DynamoDB is failing the live batches already spill; replaying would only re-spill
+            if (flushed && System.currentTimeMillis() >= nextReplayAt) {
+                replaySpill();
+            }
         } catch (Exception e) {
             // Log error but don't fail the entire operation
-            System.err.println("Error logging alert to DynamoDB: " + e.getMessage());
+            System.err.println("Error logging alerts to DynamoDB: " + e.getMessage());
+        }
+    }
+
+    // Returns whether every record was written; the rest is spilled, counted as new only when not replayed
+    private boolean write(List<Map<String, AttributeValue>> batch, boolean replayed) {
+        long start = System.nanoTime();
+        List<Map<String, AttributeValue>> unwritten;
+        try {
+            unwritten = batchWriter.putAll("AlertLogs", batch);
+        } catch (RuntimeException e) {
+            // The batch is already drained from the buffer; spill all of it rather than lose it
+            System.err.println("Error logging alerts to DynamoDB: " + e.getMessage());
+            unwritten = batch;
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        written.increment(batch.size() - unwritten.size());
+
+        if (unwritten.isEmpty()) {
+            return true;
+        }
+        System.err.println("Error logging " + unwritten.size() + " alerts to DynamoDB after retries");
+        spill(unwritten, !replayed);
+        return false;
+    }
+
+    private void spill(List<Map<String, AttributeValue>> items, boolean count) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(Path.of(spillFile), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Map<String, AttributeValue> item : items) {
+                    Map<String, String> record = new LinkedHashMap<>();
+                    item.forEach((name, value) -> record.put(name, value.s()));
+                    writer.write(OBJECT_MAPPER.writeValueAsString(record));
+                    writer.newLine();
+                }
+                if (count) {
+                    spilled.increment(items.size());
+                }
+            } catch (IOException e) {
+                dropped.increment(items.size());
+                System.err.println("Error spilling " + items.size() + " alert logs to " + spillFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Replays the spill file a batch at a time, streaming it rather than reading it whole. The first
+     * batch that still fails ends the replay: its leftovers and the unread lines go back to the spill
+     * file and the next replay waits twice as long as the last, up to replayMaxBackoffMs.
+     */
+    private void replaySpill() throws IOException {
+        Path replay = Path.of(spillFile + ".replay");
+        synchronized (spillLock) {
+            Path spill = Path.of(spillFile);
+            // A leftover replay file means the process stopped mid-replay; finish it first
+            if (!Files.exists(replay)) {
+                if (!Files.exists(spill)) {
+                    return;
+                }
+                Files.move(spill, replay, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        boolean failed = false;
+        try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+            List<Map<String, AttributeValue>> batch = new ArrayList<>();
+            String line;
+            while (!failed && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, String> record = OBJECT_MAPPER.readValue(line, new TypeReference<Map<String, String>>() {});
+                Map<String, AttributeValue> item = new HashMap<>();
+                record.forEach((name, value) -> item.put(name, AttributeValue.builder().s(value).build()));
+                batch.add(item);
+                if (batch.size() == capacity) {
+                    failed = !write(batch, true);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!failed && !batch.isEmpty()) {
+                failed = !write(batch, true);
+            }
+            if (failed) {
+                respill(reader);
+            }
+        }
+        Files.delete(replay);
+
+        if (failed) {
+            replayBackoffMs = replayBackoffMs == 0 ? flushIntervalMs : Math.min(replayBackoffMs * 2, replayMaxBackoffMs);
+            nextReplayAt = System.currentTimeMillis() + replayBackoffMs;
+        } else {
+            replayBackoffMs = 0;
+            nextReplayAt = 0;
+        }
+    }
+
+    // Copies the unread rest of a replay back to the spill file as is; these were counted when first spilled
+    private void respill(BufferedReader reader) throws IOException {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(Path.of(spillFile), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+            }
         }
     }
 }
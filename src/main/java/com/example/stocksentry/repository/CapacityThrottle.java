@@ -0,0 +1,31 @@
+package com.example.stocksentry.repository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared pacing for background DynamoDB work: after consuming N capacity units a caller
+ * waits long enough to keep the average rate at or below unitsPerSecond.
+ * A rate of zero or less disables throttling.
+ */
+public class CapacityThrottle {
+
+    private final double unitsPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    public CapacityThrottle(double unitsPerSecond) {
+        this.unitsPerSecond = unitsPerSecond;
+    }
+
+    public void acquire(double units) throws InterruptedException {
+        if (unitsPerSecond <= 0 || units <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            nextFreeNanos = Math.max(now, nextFreeNanos) + (long) (units / unitsPerSecond * 1_000_000_000L);
+            waitNanos = nextFreeNanos - now;
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+}
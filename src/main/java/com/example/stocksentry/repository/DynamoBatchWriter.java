@@ -0,0 +1,105 @@
+package com.example.stocksentry.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes items through BatchWriteItem in chunks of 25, retrying UnprocessedItems (and throttled
+ * requests) with jittered exponential backoff. Whatever is still unwritten after the last attempt,
+ * or in a chunk whose request failed outright, is returned to the caller instead of being thrown away.
+ */
+@Component
+public class DynamoBatchWriter {
+
+    public static final int MAX_BATCH_SIZE = 25;
+
+    private final DynamoDbClient dynamoDbClient;
+
+    @Value("${dynamodb.batch-write.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${dynamodb.batch-write.base-backoff-ms:50}")
+    private long baseBackoffMs;
+
+    @Value("${dynamodb.batch-write.max-backoff-ms:2000}")
+    private long maxBackoffMs;
+
+    private final MeterRegistry meterRegistry;
+
+    public DynamoBatchWriter(DynamoDbClient dynamoDbClient, MeterRegistry meterRegistry) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public List<Map<String, AttributeValue>> putAll(String tableName, List<Map<String, AttributeValue>> items) {
+        List<Map<String, AttributeValue>> unwritten = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += MAX_BATCH_SIZE) {
+            List<WriteRequest> chunk = new ArrayList<>();
+            for (Map<String, AttributeValue> item : items.subList(i, Math.min(items.size(), i + MAX_BATCH_SIZE))) {
+                chunk.add(WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build());
+            }
+            for (WriteRequest request : writeChunk(tableName, chunk)) {
+                unwritten.add(request.putRequest().item());
+            }
+        }
+        return unwritten;
+    }
+
+    private List<WriteRequest> writeChunk(String tableName, List<WriteRequest> chunk) {
+        List<WriteRequest> pending = chunk;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            try {
+                BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                        .requestItems(Map.of(tableName, pending))
+                        .build());
+                pending = response.hasUnprocessedItems()
+                        ? response.unprocessedItems().getOrDefault(tableName, List.of())
+                        : List.of();
+            } catch (ProvisionedThroughputExceededException | RequestLimitExceededException e) {
+                // Whole request throttled: retry all of it
+                if (attempt >= maxAttempts) {
+                    System.err.println("Batch write to " + tableName + " throttled: " + e.getMessage());
+                    return pending;
+                }
+            } catch (SdkException e) {
+                // Timeouts, 5xx and validation errors: hand the chunk back so the caller keeps it
+                System.err.println("Batch write to " + tableName + " failed: " + e.getMessage());
+                return pending;
+            }
+            if (pending.isEmpty()) {
+                break;
+            }
+            if (attempt >= maxAttempts) {
+                return pending;
+            }
+            Counter.builder("stocksentry.dynamodb.batch-write.retries")
+                    .description("BatchWriteItem chunks retried after throttling or unprocessed items")
+                    .tag("table", tableName)
+                    .register(meterRegistry)
+                    .increment();
+            if (!backoff(attempt)) {
+                return pending;
+            }
+        }
+        return List.of();
+    }
+
+    private boolean backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.stocksentry.repository;
+
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class NewsWatermarkRepository {
+
+    private final DynamoDbClient dynamoDbClient;
+
+    public NewsWatermarkRepository(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
+    // Epoch millis of the newest publishedAt evaluated for the symbol, or null if never polled
+    public Long loadWatermark(String symbol) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName("NewsWatermarks")
+                .key(Map.of("symbol", AttributeValue.builder().s(symbol).build()))
+                .build();
+
+        Map<String, AttributeValue> item = dynamoDbClient.getItem(request).item();
+        if (item == null || !item.containsKey("publishedAt")) {
+            return null;
+        }
+        return Long.parseLong(item.get("publishedAt").n());
+    }
+
+    // Only moves forward; a lower value from a slower writer is ignored
+    public void saveWatermark(String symbol, long publishedAt) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("symbol", AttributeValue.builder().s(symbol).build());
+        item.put("publishedAt", AttributeValue.builder().n(String.valueOf(publishedAt)).build());
+
+        try {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                    .tableName("NewsWatermarks")
+                    .item(item)
+                    .conditionExpression("attribute_not_exists(publishedAt) OR publishedAt < :publishedAt")
+                    .expressionAttributeValues(Map.of(":publishedAt", item.get("publishedAt")))
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            // Already at or past this watermark
+        }
+    }
+}
@@ -1,47 +1,107 @@
 package com.example.stocksentry.repository;
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Share OTPs. Each row snapshots the shared watchlist (owner, name, symbols) so redeeming it needs
+ * no further reads, and carries an epoch-second expiry that DynamoDB TTL uses to delete the row.
+ */
 @Repository
 public class OtpRepository {
 
+    public static final long OTP_TTL_SECONDS = 600;  // 10 min expiry
+
     private final DynamoDbClient dynamoDbClient;
 
+    @Value("${otps.ttl.enable-on-startup:false}")
+    private boolean enableTtlOnStartup;
+
     public OtpRepository(DynamoDbClient dynamoDbClient) {
         this.dynamoDbClient = dynamoDbClient;
     }
 
-    public void saveOtp(String otp, String watchlistId) {
+    // Returns false if the OTP is already taken by another live share
+    public boolean saveShare(String otp, Map<String, AttributeValue> watchlist) {
         Map<String, AttributeValue> item = new HashMap<>();
         item.put("otp", AttributeValue.builder().s(otp).build());
-        item.put("watchlistId", AttributeValue.builder().s(watchlistId).build());
-        item.put("expiry", AttributeValue.builder().n(String.valueOf(Instant.now().getEpochSecond() + 600)).build()); // 10 min expiry
+        item.put("watchlistId", watchlist.get("id"));
+        item.put("ownerId", watchlist.get("userId"));
+        for (String attribute : List.of("name", "symbols")) {
+            if (watchlist.get(attribute) != null) {
+                item.put(attribute, watchlist.get(attribute));
+            }
+        }
+        item.put("expiry", AttributeValue.builder().n(String.valueOf(Instant.now().getEpochSecond() + OTP_TTL_SECONDS)).build()); // DynamoDB TTL attribute
 
         PutItemRequest request = PutItemRequest.builder()
                 .tableName("Otps")
                 .item(item)
+                .conditionExpression("attribute_not_exists(otp) OR expiry < :now")
+                .expressionAttributeValues(Map.of(
+                        ":now", AttributeValue.builder().n(String.valueOf(Instant.now().getEpochSecond())).build()
+                ))
                 .build();
 
-        dynamoDbClient.putItem(request);
+        try {
+            dynamoDbClient.putItem(request);
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
     }
 
-    public String getWatchlistIdByOtp(String otp) {
+    // The share row, or null if the OTP is unknown, already redeemed or expired (TTL deletes lazily)
+    public Map<String, AttributeValue> getShare(String otp) {
         GetItemRequest request = GetItemRequest.builder()
                 .tableName("Otps")
                 .key(Map.of("otp", AttributeValue.builder().s(otp).build()))
                 .build();
 
         Map<String, AttributeValue> item = dynamoDbClient.getItem(request).item();
-        if (item != null && Long.parseLong(item.get("expiry").n()) > Instant.now().getEpochSecond()) {
-            return item.get("watchlistId").s();
+        if (item != null && !item.isEmpty() && Long.parseLong(item.get("expiry").n()) > Instant.now().getEpochSecond()) {
+            return item;
+        }
+        return null;
+    }
+
+    public String getWatchlistIdByOtp(String otp) {
+        Map<String, AttributeValue> share = getShare(otp);
+        return share != null ? share.get("watchlistId").s() : null;  // null: OTP invalid or expired
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void enableTtlOnStartup() {
+        if (!enableTtlOnStartup) {
+            return;
+        }
+        try {
+            TimeToLiveDescription ttl = dynamoDbClient.describeTimeToLive(DescribeTimeToLiveRequest.builder()
+                    .tableName("Otps")
+                    .build()).timeToLiveDescription();
+            if (ttl.timeToLiveStatus() != TimeToLiveStatus.DISABLED) {
+                return;
+            }
+            dynamoDbClient.updateTimeToLive(UpdateTimeToLiveRequest.builder()
+                    .tableName("Otps")
+                    .timeToLiveSpecification(TimeToLiveSpecification.builder()
+                            .attributeName("expiry")
+                            .enabled(true)
+                            .build())
+                    .build());
+            System.out.println("Enabled TTL on Otps.expiry");
+        } catch (Exception e) {
+            System.err.println("Error enabling TTL on Otps: " + e.getMessage());
         }
-        return null;  // OTP invalid or expired
     }
 }
@@ -0,0 +1,114 @@
+package com.example.stocksentry.repository;
+
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node heartbeats and shard leases for cluster-aware scanning, kept in the ScannerLeases table
+ * (partition key "leaseId"). Heartbeats are "node#<nodeId>" items and leases are "shard#<n>"
+ * items; both carry an expiresAt epoch-millis that the owner keeps pushing forward.
+ */
+@Repository
+public class ScannerLeaseRepository {
+
+    private static final String TABLE = "ScannerLeases";
+    private static final String NODE_PREFIX = "node#";
+    private static final String SHARD_PREFIX = "shard#";
+
+    private final DynamoDbClient dynamoDbClient;
+
+    public ScannerLeaseRepository(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
+    public void heartbeat(String nodeId, long expiresAt) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("leaseId", AttributeValue.builder().s(NODE_PREFIX + nodeId).build());
+        item.put("ownerId", AttributeValue.builder().s(nodeId).build());
+        item.put("expiresAt", AttributeValue.builder().n(String.valueOf(expiresAt)).build());
+
+        dynamoDbClient.putItem(PutItemRequest.builder()
+                .tableName(TABLE)
+                .item(item)
+                .build());
+    }
+
+    // IDs of nodes whose heartbeat has not expired yet
+    public List<String> findLiveNodes(long now) {
+        List<String> nodes = new ArrayList<>();
+        Map<String, AttributeValue> lastKey = null;
+        do {
+            ScanRequest.Builder request = ScanRequest.builder()
+                    .tableName(TABLE)
+                    .consistentRead(true)
+                    .filterExpression("begins_with(leaseId, :prefix) AND expiresAt > :now")
+                    .projectionExpression("ownerId")
+                    .expressionAttributeValues(Map.of(
+                            ":prefix", AttributeValue.builder().s(NODE_PREFIX).build(),
+                            ":now", AttributeValue.builder().n(String.valueOf(now)).build()));
+            if (lastKey != null) {
+                request.exclusiveStartKey(lastKey);
+            }
+            ScanResponse response = dynamoDbClient.scan(request.build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                nodes.add(item.get("ownerId").s());
+            }
+            lastKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (lastKey != null);
+        return nodes;
+    }
+
+    /**
+     * Takes or renews a shard lease. The conditional write only succeeds when the shard is free,
+     * already ours, or its previous owner stopped renewing, so two nodes never hold it at once.
+     */
+    public boolean tryAcquireShard(int shard, String nodeId, long now, long expiresAt) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("leaseId", AttributeValue.builder().s(SHARD_PREFIX + shard).build());
+        item.put("ownerId", AttributeValue.builder().s(nodeId).build());
+        item.put("expiresAt", AttributeValue.builder().n(String.valueOf(expiresAt)).build());
+
+        try {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                    .tableName(TABLE)
+                    .item(item)
+                    .conditionExpression("attribute_not_exists(leaseId) OR ownerId = :me OR expiresAt < :now")
+                    .expressionAttributeValues(Map.of(
+                            ":me", AttributeValue.builder().s(nodeId).build(),
+                            ":now", AttributeValue.builder().n(String.valueOf(now)).build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    // Gives a shard up early so its new owner does not have to wait for the lease to expire
+    public void releaseShard(int shard, String nodeId) {
+        delete(SHARD_PREFIX + shard, nodeId);
+    }
+
+    public void removeNode(String nodeId) {
+        delete(NODE_PREFIX + nodeId, nodeId);
+    }
+
+    private void delete(String leaseId, String nodeId) {
+        try {
+            dynamoDbClient.deleteItem(DeleteItemRequest.builder()
+                    .tableName(TABLE)
+                    .key(Map.of("leaseId", AttributeValue.builder().s(leaseId).build()))
+                    .conditionExpression("ownerId = :me")
+                    .expressionAttributeValues(Map.of(":me", AttributeValue.builder().s(nodeId).build()))
+                    .build());
+        } catch (ConditionalCheckFailedException e) {
+            // Already taken over by another node
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.stocksentry.repository;
+
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class SeenArticleRepository {
+
+    private final DynamoDbClient dynamoDbClient;
+
+    public SeenArticleRepository(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
+    // Packed (urlHash, seenAt) entries for a symbol, or null if nothing was stored yet
+    public byte[] loadEntries(String symbol) {
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName("SeenArticles")
+                .key(Map.of("symbol", AttributeValue.builder().s(symbol).build()))
+                .build();
+
+        Map<String, AttributeValue> item = dynamoDbClient.getItem(request).item();
+        if (item == null || !item.containsKey("entries")) {
+            return null;
+        }
+        return item.get("entries").b().asByteArray();
+    }
+
+    public void saveEntries(String symbol, byte[] entries, long expiresAtEpochSecond) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("symbol", AttributeValue.builder().s(symbol).build());
+        item.put("entries", AttributeValue.builder().b(SdkBytes.fromByteArray(entries)).build());
+        item.put("expiresAt", AttributeValue.builder().n(String.valueOf(expiresAtEpochSecond)).build()); // DynamoDB TTL attribute
+
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName("SeenArticles")
+                .item(item)
+                .build();
+
+        dynamoDbClient.putItem(request);
+    }
+}
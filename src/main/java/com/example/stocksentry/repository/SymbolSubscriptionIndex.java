@@ -0,0 +1,254 @@
+package com.example.stocksentry.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index of normalized symbol -> user IDs holding it in any watchlist.
+ * Built from the Watchlists table at startup and kept current by WatchlistRepository writes, plus a
+ * periodic rescan when other instances write to the same table.
+ */
+@Component
+public class SymbolSubscriptionIndex {
+
+    private final DynamoDbClient dynamoDbClient;
+
+    // watchlistId -> owner and symbols, kept so updates can be diffed
+    private final Map<String, Entry> watchlists = new HashMap<>();
+
+    // symbol -> userId -> number of that user's watchlists holding the symbol
+    private final Map<String, Map<String, Integer>> subscribers = new ConcurrentHashMap<>();
+
+    // Watchlists written while a rebuild is in progress; scanned copies of these are stale
+    private Set<String> touchedDuringRebuild;
+
+    private volatile boolean ready;
+
+    // On by default in cluster mode, where watchlists are also written through other instances
+    @Value("${watchlists.index.resync.enabled:${cluster.enabled:false}}")
+    private boolean resyncEnabled;
+
+    // Every node rescans the whole table, so resyncs are paced; 0 disables the limit
+    @Value("${watchlists.index.resync.max-read-capacity-per-second:50}")
+    private double resyncMaxReadCapacityPerSecond;
+
+    public SymbolSubscriptionIndex(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            if (touchedDuringRebuild != null) {
+                return;
+            }
+            ready = false;
+            watchlists.clear();
+            subscribers.clear();
+            touchedDuringRebuild = new HashSet<>();
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            // Unpaced: alerts fall back to the slow walk until the index is ready
+            scanAll(null);
+            synchronized (this) {
+                touchedDuringRebuild = null;
+                ready = true;
+            }
+            System.out.println("Symbol subscription index built: " + watchlists.size() + " watchlists, "
+                    + subscribers.size() + " symbols in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            synchronized (this) {
+                touchedDuringRebuild = null;
+            }
+            // Callers fall back to walking the tables while the index is not ready
+            System.err.println("Error building symbol subscription index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Picks up watchlists written through other instances, which this node never sees as local
+     * writes. The index stays ready and serving while the table is rescanned; afterwards entries
+     * missing from the scan are dropped unless they were written here in the meantime.
+     */
+    @Scheduled(fixedDelayString = "${watchlists.index.resync-interval-ms:300000}",
+            initialDelayString = "${watchlists.index.resync-interval-ms:300000}")
+    public void resync() {
+        if (!resyncEnabled) {
+            return;
+        }
+        if (!ready) {
+            // The startup build failed; try it again
+            rebuild();
+            return;
+        }
+        synchronized (this) {
+            if (touchedDuringRebuild != null) {
+                return;
+            }
+            touchedDuringRebuild = new HashSet<>();
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            Set<String> scanned = scanAll(new CapacityThrottle(resyncMaxReadCapacityPerSecond));
+            int dropped = 0;
+            synchronized (this) {
+                for (String watchlistId : new ArrayList<>(watchlists.keySet())) {
+                    if (!scanned.contains(watchlistId) && !touchedDuringRebuild.contains(watchlistId)) {
+                        drop(watchlistId);
+                        dropped++;
+                    }
+                }
+                touchedDuringRebuild = null;
+            }
+            System.out.println("Symbol subscription index resynced: " + scanned.size() + " watchlists, "
+                    + dropped + " dropped in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            synchronized (this) {
+                touchedDuringRebuild = null;
+            }
+            System.err.println("Error resyncing symbol subscription index: " + e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Set<String> getSubscribers(String symbol) {
+        Map<String, Integer> holders = subscribers.get(normalizeSymbol(symbol));
+        return holders == null ? Collections.emptySet() : new HashSet<>(holders.keySet());
+    }
+
+    public Set<String> getSymbols() {
+        return new HashSet<>(subscribers.keySet());
+    }
+
+    public synchronized void put(String watchlistId, String userId, Collection<String> symbols) {
+        markTouched(watchlistId);
+        apply(watchlistId, userId, symbols);
+    }
+
+    public synchronized void remove(String watchlistId) {
+        markTouched(watchlistId);
+        drop(watchlistId);
+    }
+
+    // Applies every scanned watchlist not written locally since the scan began; returns the scanned IDs
+    private Set<String> scanAll(CapacityThrottle throttle) throws InterruptedException {
+        Set<String> scanned = new HashSet<>();
+        Map<String, AttributeValue> lastKey = null;
+        do {
+            ScanRequest.Builder request = ScanRequest.builder()
+                    .tableName("Watchlists")
+                    .projectionExpression("id, userId, symbols")
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+            if (lastKey != null) {
+                request.exclusiveStartKey(lastKey);
+            }
+            ScanResponse response = dynamoDbClient.scan(request.build());
+
+            synchronized (this) {
+                for (Map<String, AttributeValue> item : response.items()) {
+                    String watchlistId = item.get("id").s();
+                    scanned.add(watchlistId);
+                    if (!touchedDuringRebuild.contains(watchlistId)) {
+                        apply(watchlistId, item.get("userId").s(), symbolsOf(item.get("symbols")));
+                    }
+                }
+            }
+            if (throttle != null && response.consumedCapacity() != null && response.consumedCapacity().capacityUnits() != null) {
+                throttle.acquire(response.consumedCapacity().capacityUnits());
+            }
+            lastKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (lastKey != null);
+        return scanned;
+    }
+
+    private void drop(String watchlistId) {
+        Entry previous = watchlists.remove(watchlistId);
+        if (previous != null) {
+            for (String symbol : previous.symbols) {
+                decrement(symbol, previous.userId);
+            }
+        }
+    }
+
+    // Reads the symbols attribute in either stored form: string set, or the older list of strings
+    public static List<String> symbolsOf(AttributeValue value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        if (value.hasSs()) {
+            return value.ss();
+        }
+        if (value.hasL()) {
+            return value.l().stream().map(AttributeValue::s).toList();
+        }
+        return Collections.emptyList();
+    }
+
+    // Also the key NewsService uses for the news cache, watermarks and shards
+    public static String normalizeSymbol(String symbol) {
+        return symbol == null ? "" : symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private void markTouched(String watchlistId) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(watchlistId);
+        }
+    }
+
+    private void apply(String watchlistId, String userId, Collection<String> symbols) {
+        Set<String> updated = new HashSet<>();
+        if (symbols != null) {
+            for (String symbol : symbols) {
+                if (symbol != null && !symbol.isBlank()) {
+                    updated.add(normalizeSymbol(symbol));
+                }
+            }
+        }
+
+        Entry previous = watchlists.put(watchlistId, new Entry(userId, updated));
+        if (previous != null) {
+            for (String symbol : previous.symbols) {
+                if (!previous.userId.equals(userId) || !updated.contains(symbol)) {
+                    decrement(symbol, previous.userId);
+                }
+            }
+        }
+        for (String symbol : updated) {
+            if (previous == null || !previous.userId.equals(userId) || !previous.symbols.contains(symbol)) {
+                subscribers.computeIfAbsent(symbol, k -> new ConcurrentHashMap<>()).merge(userId, 1, Integer::sum);
+            }
+        }
+    }
+
+    private void decrement(String symbol, String userId) {
+        Map<String, Integer> holders = subscribers.get(symbol);
+        if (holders == null) {
+            return;
+        }
+        holders.computeIfPresent(userId, (k, count) -> count > 1 ? count - 1 : null);
+        if (holders.isEmpty()) {
+            subscribers.remove(symbol);
+        }
+    }
+
+    private record Entry(String userId, Set<String> symbols) {
+    }
+}
@@ -1,20 +1,60 @@
 package com.example.stocksentry.repository;
 
+import com.example.stocksentry.exception.StockSentryException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Repository
 public class UserRepository {
 
-    public final DynamoDbClient dynamoDbClient;
+    private static final Object SEGMENT_DONE = new Object();
 
-    public UserRepository(DynamoDbClient dynamoDbClient) {
+    private static final int MAX_BATCH_GET_SIZE = 100;
+    private static final int MAX_BATCH_GET_ATTEMPTS = 5;
+
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbAsyncClient dynamoDbAsyncClient;
+    private final DynamoBatchWriter batchWriter;
+    private final int scanSegments;
+    private final int scanPageSize;
+    private final CapacityThrottle scanThrottle;
+
+    @Value("${users.batch-get.max-in-flight:8}")
+    private int batchGetMaxInFlight;
+
+    private final ExecutorService scanExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "users-scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UserRepository(DynamoDbClient dynamoDbClient,
+                          DynamoDbAsyncClient dynamoDbAsyncClient,
+                          DynamoBatchWriter batchWriter,
+                          @Value("${users.scan.segments:4}") int scanSegments,
+                          @Value("${users.scan.page-size:1000}") int scanPageSize,
+                          @Value("${users.scan.max-read-capacity-per-second:0}") double maxReadCapacityPerSecond) {
         this.dynamoDbClient = dynamoDbClient;
+        this.dynamoDbAsyncClient = dynamoDbAsyncClient;
+        this.batchWriter = batchWriter;
+        this.scanSegments = Math.max(1, scanSegments);
+        this.scanPageSize = Math.max(1, scanPageSize);
+        this.scanThrottle = new CapacityThrottle(maxReadCapacityPerSecond);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanExecutor.shutdownNow();
     }
 
     public String createUser(String name, String email, String phoneNumber) {
@@ -34,6 +74,27 @@ public class UserRepository {
         return userId;
     }
 
+    // Item for a bulk-imported user; attributes missing from the record are left out
+    public static Map<String, AttributeValue> importItem(String userId, String name, String email, String phoneNumber) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("userId", AttributeValue.builder().s(userId).build());
+        if (name != null) {
+            item.put("name", AttributeValue.builder().s(name).build());
+        }
+        if (email != null) {
+            item.put("email", AttributeValue.builder().s(email).build());
+        }
+        if (phoneNumber != null) {
+            item.put("phoneNumber", AttributeValue.builder().s(phoneNumber).build());
+        }
+        return item;
+    }
+
+    // Bulk path: BatchWriteItem with unprocessed-item retries; returns what is still unwritten
+    public List<Map<String, AttributeValue>> putAll(List<Map<String, AttributeValue>> items) {
+        return batchWriter.putAll("Users", items);
+    }
+
     public Map<String, AttributeValue> getUserById(String userId) {
         GetItemRequest request = GetItemRequest.builder()
                 .tableName("Users")
@@ -41,4 +102,174 @@ public class UserRepository {
                 .build();
         return dynamoDbClient.getItem(request).item();
     }
+
+    /**
+     * Loads many users through BatchGetItem: 100 keys per request and at most
+     * users.batch-get.max-in-flight requests outstanding on the async client, so a symbol with
+     * tens of thousands of subscribers cannot exhaust the connection pool. UnprocessedKeys and
+     * failed requests are retried with backoff. Returns userId -> item; unknown users are absent.
+     */
+    public Map<String, Map<String, AttributeValue>> batchGetUsers(Collection<String> userIds) {
+        Map<String, Map<String, AttributeValue>> found = new HashMap<>();
+        List<Map<String, AttributeValue>> pending = new ArrayList<>();
+        for (String userId : new LinkedHashSet<>(userIds)) {
+            pending.add(Map.of("userId", AttributeValue.builder().s(userId).build()));
+        }
+
+        int window = MAX_BATCH_GET_SIZE * Math.max(1, batchGetMaxInFlight);
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            List<Map<String, AttributeValue>> unprocessed = new ArrayList<>();
+            for (int start = 0; start < pending.size(); start += window) {
+                List<List<Map<String, AttributeValue>>> chunks = new ArrayList<>();
+                List<CompletableFuture<BatchGetItemResponse>> requests = new ArrayList<>();
+                for (int i = start; i < Math.min(pending.size(), start + window); i += MAX_BATCH_GET_SIZE) {
+                    List<Map<String, AttributeValue>> chunk = pending.subList(i, Math.min(pending.size(), i + MAX_BATCH_GET_SIZE));
+                    chunks.add(chunk);
+                    requests.add(dynamoDbAsyncClient.batchGetItem(BatchGetItemRequest.builder()
+                            .requestItems(Map.of("Users", KeysAndAttributes.builder().keys(chunk).build()))
+                            .build()));
+                }
+                for (int i = 0; i < requests.size(); i++) {
+                    try {
+                        BatchGetItemResponse response = requests.get(i).join();
+                        for (Map<String, AttributeValue> item : response.responses().getOrDefault("Users", List.of())) {
+                            found.put(item.get("userId").s(), item);
+                        }
+                        KeysAndAttributes left = response.hasUnprocessedKeys() ? response.unprocessedKeys().get("Users") : null;
+                        if (left != null) {
+                            unprocessed.addAll(left.keys());
+                        }
+                    } catch (Exception e) {
+                        System.err.println("Error batch loading " + chunks.get(i).size() + " users: " + e.getMessage());
+                        unprocessed.addAll(chunks.get(i));
+                    }
+                }
+            }
+            pending = unprocessed;
+            if (pending.isEmpty()) {
+                break;
+            }
+            if (attempt >= MAX_BATCH_GET_ATTEMPTS) {
+                System.err.println("Giving up on " + pending.size() + " users still unprocessed after " + attempt + " attempts");
+                break;
+            }
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(25L << attempt, (50L << attempt) + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Lazily streams every userId in the Users table. Segments are scanned in parallel and
+     * paged through LastEvaluatedKey; workers block once the hand-off queue is full, so the
+     * scan only runs ahead of the consumer by a bounded amount. Close the stream when done.
+     */
+    public Stream<String> streamAllUserIds() {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(scanPageSize * scanSegments);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int segment = 0; segment < scanSegments; segment++) {
+            int current = segment;
+            workers.add(scanExecutor.submit(() -> scanSegment(current, queue, cancelled)));
+        }
+
+        Runnable cancel = () -> {
+            cancelled.set(true);
+            workers.forEach(worker -> worker.cancel(true));
+        };
+
+        Iterator<String> iterator = new Iterator<>() {
+            private int finishedSegments;
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && finishedSegments < scanSegments) {
+                    Object element;
+                    try {
+                        element = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        cancel.run();
+                        throw new StockSentryException("Interrupted while scanning Users", e);
+                    }
+                    if (element == SEGMENT_DONE) {
+                        finishedSegments++;
+                    } else if (element instanceof Throwable failure) {
+                        cancel.run();
+                        throw new StockSentryException("Error scanning Users: " + failure.getMessage(), failure);
+                    } else {
+                        next = (String) element;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String value = next;
+                next = null;
+                return value;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(cancel);
+    }
+
+    private void scanSegment(int segment, BlockingQueue<Object> queue, AtomicBoolean cancelled) {
+        try {
+            Map<String, AttributeValue> lastKey = null;
+            do {
+                ScanRequest.Builder request = ScanRequest.builder()
+                        .tableName("Users")
+                        .projectionExpression("userId")
+                        .segment(segment)
+                        .totalSegments(scanSegments)
+                        .limit(scanPageSize)
+                        .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+                if (lastKey != null) {
+                    request.exclusiveStartKey(lastKey);
+                }
+                ScanResponse response = dynamoDbClient.scan(request.build());
+
+                for (Map<String, AttributeValue> item : response.items()) {
+                    if (!handOff(queue, item.get("userId").s(), cancelled)) {
+                        return;
+                    }
+                }
+                if (response.consumedCapacity() != null && response.consumedCapacity().capacityUnits() != null) {
+                    scanThrottle.acquire(response.consumedCapacity().capacityUnits());
+                }
+                lastKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                        ? response.lastEvaluatedKey() : null;
+            } while (lastKey != null && !cancelled.get());
+
+            handOff(queue, SEGMENT_DONE, cancelled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            try {
+                handOff(queue, e, cancelled);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean handOff(BlockingQueue<Object> queue, Object element, AtomicBoolean cancelled) throws InterruptedException {
+        while (!cancelled.get()) {
+            if (queue.offer(element, 1, TimeUnit.SECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,83 @@
+package com.example.stocksentry.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+/**
+ * Adds the id-index GSI (partition key "id", keys-only projection) to an existing Watchlists
+ * table so watchlists can be found by ID without a scan. DynamoDB backfills the index online;
+ * WatchlistRepository keeps using scans until it reports ACTIVE.
+ */
+@Component
+public class WatchlistIndexMigration {
+
+    private final DynamoDbClient dynamoDbClient;
+
+    @Value("${watchlists.id-index.create-on-startup:false}")
+    private boolean createOnStartup;
+
+    public WatchlistIndexMigration(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!createOnStartup) {
+            return;
+        }
+        try {
+            ensureIdIndex();
+        } catch (Exception e) {
+            System.err.println("Error creating " + WatchlistRepository.ID_INDEX + " on Watchlists: " + e.getMessage());
+        }
+    }
+
+    // Returns the index status, e.g. CREATING or ACTIVE
+    public String ensureIdIndex() {
+        TableDescription table = dynamoDbClient.describeTable(DescribeTableRequest.builder()
+                .tableName("Watchlists")
+                .build()).table();
+
+        if (table.hasGlobalSecondaryIndexes()) {
+            for (GlobalSecondaryIndexDescription index : table.globalSecondaryIndexes()) {
+                if (WatchlistRepository.ID_INDEX.equals(index.indexName())) {
+                    System.out.println("Watchlists " + WatchlistRepository.ID_INDEX + " already exists: " + index.indexStatusAsString());
+                    return index.indexStatusAsString();
+                }
+            }
+        }
+
+        CreateGlobalSecondaryIndexAction.Builder create = CreateGlobalSecondaryIndexAction.builder()
+                .indexName(WatchlistRepository.ID_INDEX)
+                .keySchema(KeySchemaElement.builder().attributeName("id").keyType(KeyType.HASH).build())
+                .projection(Projection.builder().projectionType(ProjectionType.KEYS_ONLY).build());
+
+        // Provisioned tables need explicit index throughput; reuse the table's settings
+        boolean onDemand = table.billingModeSummary() != null
+                && table.billingModeSummary().billingMode() == BillingMode.PAY_PER_REQUEST;
+        if (!onDemand) {
+            create.provisionedThroughput(ProvisionedThroughput.builder()
+                    .readCapacityUnits(table.provisionedThroughput().readCapacityUnits())
+                    .writeCapacityUnits(table.provisionedThroughput().writeCapacityUnits())
+                    .build());
+        }
+
+        dynamoDbClient.updateTable(UpdateTableRequest.builder()
+                .tableName("Watchlists")
+                .attributeDefinitions(AttributeDefinition.builder()
+                        .attributeName("id")
+                        .attributeType(ScalarAttributeType.S)
+                        .build())
+                .globalSecondaryIndexUpdates(GlobalSecondaryIndexUpdate.builder()
+                        .create(create.build())
+                        .build())
+                .build());
+
+        System.out.println("Requested " + WatchlistRepository.ID_INDEX + " on Watchlists; DynamoDB is backfilling it");
+        return IndexStatus.CREATING.toString();
+    }
+}
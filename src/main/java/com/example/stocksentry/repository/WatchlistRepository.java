@@ -1,56 +1,139 @@
 package com.example.stocksentry.repository;
 
+import com.example.stocksentry.exception.WatchlistConflictException;
 import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
+import java.time.Instant;
 import java.util.*;
 
 @Repository
 public class WatchlistRepository {
 
+    public static final String ID_INDEX = "id-index";
+
+    private static final int MAX_EXISTS_CHECK_ATTEMPTS = 3;
+
     private final DynamoDbClient dynamoDbClient;
+    private final SymbolSubscriptionIndex subscriptionIndex;
+    private final DynamoBatchWriter batchWriter;
+
+    // Set while the id-index is missing or still backfilling; queries are retried after this time
+    private volatile long idIndexRetryAt;
 
-    public WatchlistRepository(DynamoDbClient dynamoDbClient) {
+    public WatchlistRepository(DynamoDbClient dynamoDbClient, SymbolSubscriptionIndex subscriptionIndex,
+                               DynamoBatchWriter batchWriter) {
         this.dynamoDbClient = dynamoDbClient;
+        this.subscriptionIndex = subscriptionIndex;
+        this.batchWriter = batchWriter;
     }
 
     public void saveWatchlist(String id, String userId, String name, List<String> symbols) {
-        Map<String, AttributeValue> item = new HashMap<>();
-        item.put("id", AttributeValue.builder().s(id != null && !id.isEmpty() ? id : UUID.randomUUID().toString()).build());
-        item.put("userId", AttributeValue.builder().s(userId).build());
-        item.put("name", AttributeValue.builder().s(name).build());
-        item.put("symbols", AttributeValue.builder().l(
-                symbols.stream()
-                        .map(s -> AttributeValue.builder().s(s).build())
-                        .toList()
-        ).build());
-
-        PutItemRequest request = PutItemRequest.builder()
-                .tableName("Watchlists")
-                .item(item)
-                .build();
+        replaceWatchlist(id, userId, name, symbols, null);
+    }
 
-        dynamoDbClient.putItem(request);
+    /**
+     * Full replacement of name and symbols. With expectedVersion set, the write only goes through
+     * if nobody changed the watchlist since that version was read (0 = never versioned);
+     * otherwise a WatchlistConflictException is thrown and nothing is written.
+     */
+    public long upsertWatchlist(String id, String userId, String name, List<String> symbols, Long expectedVersion) {
+        return replaceWatchlist(id, userId, name, symbols, expectedVersion);
     }
 
-    public void upsertWatchlist(String id, String userId, String name, List<String> symbols) {
+    // Item for a bulk-imported watchlist at version 1; putAll only writes it as is when the key is new
+    public static Map<String, AttributeValue> importItem(String id, String userId, String name, Collection<String> symbols) {
         Map<String, AttributeValue> item = new HashMap<>();
-        item.put("id", AttributeValue.builder().s(id != null && !id.isEmpty() ? id : UUID.randomUUID().toString()).build());
+        item.put("id", AttributeValue.builder().s(id).build());
         item.put("userId", AttributeValue.builder().s(userId).build());
         item.put("name", AttributeValue.builder().s(name).build());
-        item.put("symbols", AttributeValue.builder().l(
-                symbols.stream()
-                        .map(s -> AttributeValue.builder().s(s).build())
-                        .toList()
-        ).build());
+        Set<String> symbolSet = cleanSymbols(symbols);
+        if (!symbolSet.isEmpty()) {
+            item.put("symbols", AttributeValue.builder().ss(symbolSet).build());
+        }
+        item.put("version", AttributeValue.builder().n("1").build());
+        return item;
+    }
 
-        PutItemRequest request = PutItemRequest.builder()
-                .tableName("Watchlists")
-                .item(item)
-                .build();
+    /**
+     * Bulk path; returns the items still unwritten. New keys go through BatchWriteItem with
+     * unprocessed-item retries. BatchWriteItem cannot make a write conditional, so keys that already
+     * exist are replaced through UpdateItem instead, which carries their version forward. Resetting
+     * it to 1 would let a client still holding an old version overwrite the import.
+     */
+    public List<Map<String, AttributeValue>> putAll(List<Map<String, AttributeValue>> items) {
+        Set<String> existing = existingKeys(items);
+        List<Map<String, AttributeValue>> created = new ArrayList<>();
+        List<Map<String, AttributeValue>> unwritten = new ArrayList<>();
+        for (Map<String, AttributeValue> item : items) {
+            if (!existing.contains(keyOf(item))) {
+                created.add(item);
+                continue;
+            }
+            try {
+                // Indexes the stored item itself
+                replaceWatchlist(item.get("id").s(), item.get("userId").s(), item.get("name").s(),
+                        SymbolSubscriptionIndex.symbolsOf(item.get("symbols")), null);
+            } catch (SdkException e) {
+                System.err.println("Error importing over watchlist " + item.get("id").s() + ": " + e.getMessage());
+                unwritten.add(item);
+            }
+        }
+
+        List<Map<String, AttributeValue>> unwrittenCreates = batchWriter.putAll("Watchlists", created);
+        Set<String> failedIds = new HashSet<>();
+        for (Map<String, AttributeValue> item : unwrittenCreates) {
+            failedIds.add(item.get("id").s());
+        }
+        for (Map<String, AttributeValue> item : created) {
+            String watchlistId = item.get("id").s();
+            if (!failedIds.contains(watchlistId)) {
+                subscriptionIndex.put(watchlistId, item.get("userId").s(), SymbolSubscriptionIndex.symbolsOf(item.get("symbols")));
+            }
+        }
+        unwritten.addAll(unwrittenCreates);
+        return unwritten;
+    }
+
+    // Keys of the items already in the table. Keys that cannot be checked count as existing: the
+    // UpdateItem path writes a missing item correctly too, only one call at a time
+    private Set<String> existingKeys(List<Map<String, AttributeValue>> items) {
+        Set<String> existing = new HashSet<>();
+        List<Map<String, AttributeValue>> all = new ArrayList<>();
+        for (Map<String, AttributeValue> item : items) {
+            all.add(key(item.get("userId").s(), item.get("id").s()));
+        }
+        List<Map<String, AttributeValue>> keys = all;
+        try {
+            for (int attempt = 0; attempt < MAX_EXISTS_CHECK_ATTEMPTS && !keys.isEmpty(); attempt++) {
+                BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                        .requestItems(Map.of("Watchlists", KeysAndAttributes.builder()
+                                .keys(keys)
+                                .projectionExpression("userId, id")
+                                .consistentRead(true)
+                                .build()))
+                        .build());
+                for (Map<String, AttributeValue> found : response.responses().getOrDefault("Watchlists", List.of())) {
+                    existing.add(keyOf(found));
+                }
+                KeysAndAttributes unprocessed = response.hasUnprocessedKeys()
+                        ? response.unprocessedKeys().get("Watchlists") : null;
+                keys = unprocessed == null ? List.of() : unprocessed.keys();
+            }
+        } catch (SdkException e) {
+            System.err.println("Error checking " + items.size() + " imported watchlists for existing keys: " + e.getMessage());
+            keys = all;
+        }
+        for (Map<String, AttributeValue> key : keys) {
+            existing.add(keyOf(key));
+        }
+        return existing;
+    }
 
-        dynamoDbClient.putItem(request);
+    private static String keyOf(Map<String, AttributeValue> item) {
+        return item.get("userId").s() + "/" + item.get("id").s();
     }
 
     public List<Map<String, AttributeValue>> getWatchlistsByUser(String userId) {
@@ -61,6 +144,9 @@ public class WatchlistRepository {
                 .tableName("Watchlists")
                 .keyConditionExpression("userId = :userId")
                 .expressionAttributeValues(expressionValues)
+                // Fills the watchlist cache after invalidate(); an eventually consistent read could
+                // cache the state from before the write for the whole TTL
+                .consistentRead(true)
                 .build();
 
         return dynamoDbClient.query(request).items();
@@ -78,115 +164,305 @@ public class WatchlistRepository {
         return dynamoDbClient.getItem(request).item();
     }
 
-    public void deleteWatchlistById(String watchlistId) {
-        // Scan to find item by id to get its userId (partition key)
-        ScanRequest scanRequest = ScanRequest.builder()
-                .tableName("Watchlists")
-                .filterExpression("id = :id")
-                .expressionAttributeValues(Map.of(
-                        ":id", AttributeValue.builder().s(watchlistId).build()
-                ))
-                .limit(1)
-                .build();
+    // Resolves a watchlist's partition key through the id-index GSI: one Query regardless of table size
+    public String findUserIdByWatchlistId(String watchlistId) {
+        if (System.currentTimeMillis() >= idIndexRetryAt) {
+            try {
+                QueryRequest request = QueryRequest.builder()
+                        .tableName("Watchlists")
+                        .indexName(ID_INDEX)
+                        .keyConditionExpression("id = :id")
+                        .expressionAttributeValues(Map.of(
+                                ":id", AttributeValue.builder().s(watchlistId).build()
+                        ))
+                        .limit(1)
+                        .build();
+
+                List<Map<String, AttributeValue>> items = dynamoDbClient.query(request).items();
+                return items.isEmpty() ? null : items.get(0).get("userId").s();
+            } catch (DynamoDbException e) {
+                if (!"ValidationException".equals(errorCode(e))) {
+                    throw e;
+                }
+                // Table has no id-index yet (see WatchlistIndexMigration); fall back to scanning
+                idIndexRetryAt = System.currentTimeMillis() + 300_000;
+                System.err.println("Watchlists table has no " + ID_INDEX + " index, falling back to scans: " + e.getMessage());
+            }
+        }
+        return scanForUserId(watchlistId);
+    }
 
-        List<Map<String, AttributeValue>> items = dynamoDbClient.scan(scanRequest).items();
-        if (items.isEmpty()) {
-            return;
+    // Returns the owner's userId, or null if the watchlist was not found under that owner
+    public String deleteWatchlistById(String userId, String watchlistId) {
+        String ownerId = resolveUserId(userId, watchlistId);
+        if (ownerId == null) {
+            return null;
         }
-        Map<String, AttributeValue> item = items.get(0);
-        String userId = item.get("userId").s();
 
         DeleteItemRequest deleteRequest = DeleteItemRequest.builder()
                 .tableName("Watchlists")
                 .key(Map.of(
-                        "userId", AttributeValue.builder().s(userId).build(),
+                        "userId", AttributeValue.builder().s(ownerId).build(),
                         "id", AttributeValue.builder().s(watchlistId).build()
                 ))
+                .returnValues(ReturnValue.ALL_OLD)
                 .build();
 
-        dynamoDbClient.deleteItem(deleteRequest);
+        // A wrong userId deletes nothing; the real owner's index entry must stay
+        DeleteItemResponse response = dynamoDbClient.deleteItem(deleteRequest);
+        if (!response.hasAttributes() || response.attributes().isEmpty()) {
+            return null;
+        }
+        subscriptionIndex.remove(watchlistId);
+        return ownerId;
     }
 
-    public void addSymbols(String watchlistId, List<String> symbolsToAdd) {
-        // Fetch existing item
-        ScanRequest scanRequest = ScanRequest.builder()
-                .tableName("Watchlists")
-                .filterExpression("id = :id")
-                .expressionAttributeValues(Map.of(
-                        ":id", AttributeValue.builder().s(watchlistId).build()
-                ))
-                .limit(1)
+    // Single UpdateItem: ADD into the string set, no read of the existing symbols
+    public String addSymbols(String userId, String watchlistId, List<String> symbolsToAdd) {
+        Set<String> added = cleanSymbols(symbolsToAdd);
+        String ownerId = resolveUserId(userId, watchlistId);
+        if (ownerId == null || added.isEmpty()) {
+            return ownerId;
+        }
+        return mutateSymbols(ownerId, watchlistId, "ADD", added);
+    }
+
+    // Single UpdateItem: DELETE from the string set; removing the last symbol drops the attribute
+    public String removeSymbol(String userId, String watchlistId, String symbol) {
+        Set<String> removed = cleanSymbols(Collections.singletonList(symbol));
+        String ownerId = resolveUserId(userId, watchlistId);
+        if (ownerId == null || removed.isEmpty()) {
+            return ownerId;
+        }
+        return mutateSymbols(ownerId, watchlistId, "DELETE", removed);
+    }
+
+    /**
+     * Consumes a share OTP and copies its snapshot into the recipient's watchlists in one
+     * TransactWriteItems call. The OTP delete is conditional, so of two concurrent redemptions only
+     * one commits. Returns the new watchlist item, or null if the OTP was already used or expired.
+     */
+    public Map<String, AttributeValue> redeemShare(String otp, Map<String, AttributeValue> share, String recipientUserId) {
+        String watchlistId = UUID.randomUUID().toString();
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", AttributeValue.builder().s(watchlistId).build());
+        item.put("userId", AttributeValue.builder().s(recipientUserId).build());
+        for (String attribute : List.of("name", "symbols")) {
+            if (share.get(attribute) != null) {
+                item.put(attribute, share.get(attribute));
+            }
+        }
+        item.put("version", AttributeValue.builder().n("1").build());
+        item.put("sharedFrom", share.get("watchlistId"));
+
+        TransactWriteItemsRequest request = TransactWriteItemsRequest.builder()
+                .transactItems(
+                        TransactWriteItem.builder().delete(Delete.builder()
+                                .tableName("Otps")
+                                .key(Map.of("otp", AttributeValue.builder().s(otp).build()))
+                                .conditionExpression("watchlistId = :source AND expiry > :now")
+                                .expressionAttributeValues(Map.of(
+                                        ":source", share.get("watchlistId"),
+                                        ":now", AttributeValue.builder().n(String.valueOf(Instant.now().getEpochSecond())).build()
+                                ))
+                                .build()).build(),
+                        TransactWriteItem.builder().put(Put.builder()
+                                .tableName("Watchlists")
+                                .item(item)
+                                .conditionExpression("attribute_not_exists(id)")
+                                .build()).build())
                 .build();
 
-        List<Map<String, AttributeValue>> items = dynamoDbClient.scan(scanRequest).items();
-        if (items.isEmpty()) {
-            return;
+        try {
+            dynamoDbClient.transactWriteItems(request);
+        } catch (TransactionCanceledException e) {
+            // Reason 0 is the OTP delete: a failed condition there means redeemed or expired meanwhile
+            if (e.hasCancellationReasons() && "ConditionalCheckFailed".equals(e.cancellationReasons().get(0).code())) {
+                return null;
+            }
+            throw e;
         }
-        Map<String, AttributeValue> item = items.get(0);
-        String userId = item.get("userId").s();
-        List<AttributeValue> existing = item.getOrDefault("symbols", AttributeValue.builder().l(new ArrayList<>()).build()).l();
+        subscriptionIndex.put(watchlistId, recipientUserId, SymbolSubscriptionIndex.symbolsOf(item.get("symbols")));
+        return item;
+    }
+
+    private long replaceWatchlist(String id, String userId, String name, List<String> symbols, Long expectedVersion) {
+        String watchlistId = id != null && !id.isEmpty() ? id : UUID.randomUUID().toString();
+        Set<String> symbolSet = cleanSymbols(symbols);
 
-        // Merge and de-duplicate
-        Set<String> merged = new LinkedHashSet<>();
-        for (AttributeValue v : existing) merged.add(v.s());
-        merged.addAll(symbolsToAdd);
+        Map<String, String> names = new HashMap<>();
+        names.put("#name", "name");
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":name", AttributeValue.builder().s(name).build());
+        values.put(":zero", AttributeValue.builder().n("0").build());
+        values.put(":one", AttributeValue.builder().n("1").build());
+        // String sets cannot be empty, so an empty watchlist has no symbols attribute
+        String expression;
+        if (symbolSet.isEmpty()) {
+            expression = "SET #name = :name, version = if_not_exists(version, :zero) + :one REMOVE symbols";
+        } else {
+            expression = "SET #name = :name, symbols = :symbols, version = if_not_exists(version, :zero) + :one";
+            values.put(":symbols", AttributeValue.builder().ss(symbolSet).build());
+        }
+
+        UpdateItemRequest.Builder update = UpdateItemRequest.builder()
+                .tableName("Watchlists")
+                .key(key(userId, watchlistId))
+                .updateExpression(expression)
+                .expressionAttributeNames(names)
+                .returnValues(ReturnValue.ALL_NEW);
+        if (expectedVersion != null) {
+            if (expectedVersion == 0) {
+                update.conditionExpression("attribute_not_exists(version)");
+            } else {
+                update.conditionExpression("version = :expected");
+                values.put(":expected", AttributeValue.builder().n(String.valueOf(expectedVersion)).build());
+            }
+        }
+        update.expressionAttributeValues(values);
 
-        List<AttributeValue> updated = merged.stream()
-                .map(s -> AttributeValue.builder().s(s).build())
-                .toList();
+        UpdateItemResponse response;
+        try {
+            response = dynamoDbClient.updateItem(update.build());
+        } catch (ConditionalCheckFailedException e) {
+            throw new WatchlistConflictException("Watchlist " + watchlistId + " was modified since version " + expectedVersion);
+        }
+        // Index from the stored item, not the request, as mutateSymbols does
+        subscriptionIndex.put(watchlistId, userId, SymbolSubscriptionIndex.symbolsOf(response.attributes().get("symbols")));
+        return Long.parseLong(response.attributes().get("version").n());
+    }
 
+    private String mutateSymbols(String ownerId, String watchlistId, String action, Set<String> symbols) {
         UpdateItemRequest update = UpdateItemRequest.builder()
                 .tableName("Watchlists")
-                .key(Map.of(
-                        "userId", AttributeValue.builder().s(userId).build(),
-                        "id", AttributeValue.builder().s(watchlistId).build()
-                ))
-                .updateExpression("SET symbols = :symbols")
+                .key(key(ownerId, watchlistId))
+                .updateExpression(action + " symbols :symbols SET version = if_not_exists(version, :zero) + :one")
+                .conditionExpression("attribute_exists(id)")
                 .expressionAttributeValues(Map.of(
-                        ":symbols", AttributeValue.builder().l(updated).build()
+                        ":symbols", AttributeValue.builder().ss(symbols).build(),
+                        ":zero", AttributeValue.builder().n("0").build(),
+                        ":one", AttributeValue.builder().n("1").build()
                 ))
+                .returnValues(ReturnValue.ALL_NEW)
                 .build();
 
-        dynamoDbClient.updateItem(update);
+        Map<String, AttributeValue> item;
+        try {
+            item = dynamoDbClient.updateItem(update).attributes();
+        } catch (ConditionalCheckFailedException e) {
+            return null;
+        } catch (DynamoDbException e) {
+            // ADD/DELETE need a string set; convert an item still holding the old list form, then retry once
+            if (!"ValidationException".equals(errorCode(e)) || !convertSymbolsToSet(ownerId, watchlistId)) {
+                throw e;
+            }
+            try {
+                item = dynamoDbClient.updateItem(update).attributes();
+            } catch (ConditionalCheckFailedException notFound) {
+                return null;
+            }
+        }
+        // ALL_NEW is the state right after this write, so concurrent edits cannot be lost from the index
+        subscriptionIndex.put(watchlistId, ownerId, SymbolSubscriptionIndex.symbolsOf(item.get("symbols")));
+        return ownerId;
     }
 
-    public void removeSymbol(String watchlistId, String symbol) {
-        // Fetch existing item
-        ScanRequest scanRequest = ScanRequest.builder()
+    // Rewrites a list-typed symbols attribute as a string set, guarded on the list being unchanged
+    private boolean convertSymbolsToSet(String ownerId, String watchlistId) {
+        Map<String, AttributeValue> item = findWatchlist(ownerId, watchlistId);
+        if (item == null || item.get("symbols") == null || !item.get("symbols").hasL()) {
+            return false;
+        }
+        Set<String> symbols = cleanSymbols(SymbolSubscriptionIndex.symbolsOf(item.get("symbols")));
+
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":list", item.get("symbols"));
+        UpdateItemRequest.Builder update = UpdateItemRequest.builder()
                 .tableName("Watchlists")
-                .filterExpression("id = :id")
-                .expressionAttributeValues(Map.of(
-                        ":id", AttributeValue.builder().s(watchlistId).build()
-                ))
-                .limit(1)
-                .build();
+                .key(key(ownerId, watchlistId))
+                .conditionExpression("symbols = :list");
+        if (symbols.isEmpty()) {
+            update.updateExpression("REMOVE symbols");
+        } else {
+            update.updateExpression("SET symbols = :symbols");
+            values.put(":symbols", AttributeValue.builder().ss(symbols).build());
+        }
+        try {
+            dynamoDbClient.updateItem(update.expressionAttributeValues(values).build());
+        } catch (ConditionalCheckFailedException e) {
+            // Changed underneath us (possibly converted by another instance); the retry will tell
+        }
+        return true;
+    }
 
-        List<Map<String, AttributeValue>> items = dynamoDbClient.scan(scanRequest).items();
-        if (items.isEmpty()) {
-            return;
+    private static Set<String> cleanSymbols(Collection<String> symbols) {
+        Set<String> cleaned = new LinkedHashSet<>();
+        if (symbols != null) {
+            for (String symbol : symbols) {
+                if (symbol != null && !symbol.isBlank()) {
+                    cleaned.add(symbol);
+                }
+            }
         }
-        Map<String, AttributeValue> item = items.get(0);
-        String userId = item.get("userId").s();
-        List<AttributeValue> existing = item.getOrDefault("symbols", AttributeValue.builder().l(new ArrayList<>()).build()).l();
+        return cleaned;
+    }
 
-        List<AttributeValue> updated = existing.stream()
-                .map(AttributeValue::s)
-                .filter(s -> !s.equals(symbol))
-                .map(s -> AttributeValue.builder().s(s).build())
-                .toList();
+    private static Map<String, AttributeValue> key(String userId, String watchlistId) {
+        return Map.of(
+                "userId", AttributeValue.builder().s(userId).build(),
+                "id", AttributeValue.builder().s(watchlistId).build()
+        );
+    }
 
-        UpdateItemRequest update = UpdateItemRequest.builder()
+    // userId is optional on the API; when the caller supplies it no index lookup is needed
+    private String resolveUserId(String userId, String watchlistId) {
+        return userId != null && !userId.isEmpty() ? userId : findUserIdByWatchlistId(watchlistId);
+    }
+
+    // Consistent read of one watchlist item; userId may be null, then the owner is looked up first
+    public Map<String, AttributeValue> findWatchlist(String userId, String watchlistId) {
+        String ownerId = resolveUserId(userId, watchlistId);
+        if (ownerId == null) {
+            return null;
+        }
+        GetItemRequest request = GetItemRequest.builder()
                 .tableName("Watchlists")
                 .key(Map.of(
-                        "userId", AttributeValue.builder().s(userId).build(),
+                        "userId", AttributeValue.builder().s(ownerId).build(),
                         "id", AttributeValue.builder().s(watchlistId).build()
                 ))
-                .updateExpression("SET symbols = :symbols")
-                .expressionAttributeValues(Map.of(
-                        ":symbols", AttributeValue.builder().l(updated).build()
-                ))
+                .consistentRead(true)
                 .build();
 
-        dynamoDbClient.updateItem(update);
+        Map<String, AttributeValue> item = dynamoDbClient.getItem(request).item();
+        return item == null || item.isEmpty() ? null : item;
+    }
+
+    private String scanForUserId(String watchlistId) {
+        // Limit applies before the filter, so page through until the item is found
+        Map<String, AttributeValue> lastKey = null;
+        do {
+            ScanRequest.Builder scanRequest = ScanRequest.builder()
+                    .tableName("Watchlists")
+                    .filterExpression("id = :id")
+                    .projectionExpression("userId")
+                    .expressionAttributeValues(Map.of(
+                            ":id", AttributeValue.builder().s(watchlistId).build()
+                    ));
+            if (lastKey != null) {
+                scanRequest.exclusiveStartKey(lastKey);
+            }
+            ScanResponse response = dynamoDbClient.scan(scanRequest.build());
+            if (!response.items().isEmpty()) {
+                return response.items().get(0).get("userId").s();
+            }
+            lastKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty()
+                    ? response.lastEvaluatedKey() : null;
+        } while (lastKey != null);
+        return null;
+    }
+
+    private static String errorCode(DynamoDbException e) {
+        return e.awsErrorDetails() != null ? e.awsErrorDetails().errorCode() : null;
     }
 }
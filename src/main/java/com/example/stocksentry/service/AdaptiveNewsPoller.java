@@ -0,0 +1,285 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.repository.SymbolSubscriptionIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-symbol news polling (newsscheduler.mode=ADAPTIVE). Each subscribed symbol sits in a hashed
+ * timing wheel with its own interval, derived from its recent news velocity (an EWMA of new
+ * articles per hour) and its subscriber count: busy, widely held symbols are polled close to the
+ * minimum interval and quiet ones drift towards the maximum. Due symbols wait in a priority queue
+ * and are released against a global per-minute request budget, hottest first, so the NewsAPI
+ * quota is spent where news actually happens. All wheel and queue state is touched only by the
+ * single ticker thread.
+ */
+@Component
+public class AdaptiveNewsPoller {
+
+    public static final String MODE = "ADAPTIVE";
+
+    private static final int WHEEL_SIZE = 512;
+    private static final double VELOCITY_ALPHA = 0.3;
+
+    private final NewsService newsService;
+    private final SymbolSubscriptionIndex subscriptionIndex;
+    private final ShardCoordinator shardCoordinator;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${newsscheduler.mode:FIXED}")
+    private String mode;
+
+    @Value("${newsscheduler.adaptive.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${newsscheduler.adaptive.min-interval-seconds:120}")
+    private long minIntervalSeconds;
+
+    @Value("${newsscheduler.adaptive.max-interval-seconds:21600}")
+    private long maxIntervalSeconds;
+
+    @Value("${newsscheduler.adaptive.budget-per-minute:60}")
+    private int budgetPerMinute;
+
+    @Value("${newsscheduler.adaptive.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    private ScheduledExecutorService ticker;
+    private HashedTimingWheel<PollState> wheel;
+    private final Map<String, PollState> states = new HashMap<>();
+    private final PriorityQueue<PollState> due = new PriorityQueue<>(
+            Comparator.comparingDouble((PollState state) -> state.queuedPriority).reversed());
+
+    // Token bucket refilled continuously at budgetPerMinute, holding at most one minute's worth
+    private double tokens;
+    private long ticks;
+
+    private Counter polls;
+    private Counter failures;
+    private volatile int inFlight;
+    // Copied from the ticker-confined state at the end of each tick, for the gauges
+    private volatile int trackedSymbols;
+    private volatile int scheduledSymbols;
+    private volatile int dueSymbols;
+
+    public AdaptiveNewsPoller(NewsService newsService, SymbolSubscriptionIndex subscriptionIndex,
+                              ShardCoordinator shardCoordinator, MeterRegistry meterRegistry) {
+        this.newsService = newsService;
+        this.subscriptionIndex = subscriptionIndex;
+        this.shardCoordinator = shardCoordinator;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return MODE.equalsIgnoreCase(mode);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        wheel = new HashedTimingWheel<>(WHEEL_SIZE);
+        registerMeters();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "adaptive-news-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tickSafely, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        System.out.println("Adaptive news polling enabled: " + budgetPerMinute + " requests/minute, intervals "
+                + minIntervalSeconds + "s-" + maxIntervalSeconds + "s");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (Exception e) {
+            System.err.println("Error in adaptive news poller: " + e.getMessage());
+        }
+    }
+
+    private void tick() {
+        if (ticks++ % Math.max(1, refreshSeconds * 1000 / tickMs) == 0) {
+            refreshSymbols();
+        }
+
+        double perTick = budgetPerMinute * tickMs / 60000.0;
+        tokens = Math.min(Math.max(1, budgetPerMinute), tokens + perTick);
+
+        wheel.advance(state -> {
+            if (state.active) {
+                // Fixed at enqueue time so later subscriber updates cannot reorder the heap under it
+                state.queuedPriority = state.priority();
+                due.add(state);
+            }
+        });
+
+        while (!due.isEmpty() && tokens >= 1) {
+            PollState state = due.poll();
+            if (!state.active) {
+                continue;
+            }
+            if (!shardCoordinator.owns(state.symbol)) {
+                // Another node polls it; check again later in case the shard moves here
+                schedule(state, state.intervalSeconds);
+                continue;
+            }
+            tokens--;
+            poll(state);
+        }
+        // Whatever is left stays due and goes first as soon as the budget refills
+        trackedSymbols = states.size();
+        scheduledSymbols = wheel.size();
+        dueSymbols = due.size();
+    }
+
+    private void registerMeters() {
+        polls = Counter.builder("stocksentry.poller.polls")
+                .description("Adaptive polls started")
+                .register(meterRegistry);
+        failures = Counter.builder("stocksentry.poller.failures")
+                .description("Adaptive polls that failed")
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.poller.in.flight", this, poller -> poller.inFlight)
+                .description("Adaptive polls waiting for NewsAPI or evaluation")
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.poller.symbols", this, poller -> poller.trackedSymbols)
+                .description("Symbols tracked by the adaptive poller")
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.poller.scheduled", this, poller -> poller.scheduledSymbols)
+                .description("Symbols waiting in the timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.poller.due", this, poller -> poller.dueSymbols)
+                .description("Due symbols held back by the request budget")
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.poller.budget", () -> budgetPerMinute)
+                .description("NewsAPI requests per minute available to the adaptive poller")
+                .register(meterRegistry);
+    }
+
+    // Syncs the tracked symbols with the subscription index: new symbols are polled soon, unsubscribed ones dropped
+    private void refreshSymbols() {
+        if (!subscriptionIndex.isReady()) {
+            return;
+        }
+        Set<String> symbols = subscriptionIndex.getSymbols();
+        for (String symbol : symbols) {
+            PollState state = states.get(symbol);
+            int subscribers = subscriptionIndex.getSubscribers(symbol).size();
+            if (state == null) {
+                state = new PollState(symbol);
+                state.subscribers = subscribers;
+                state.intervalSeconds = minIntervalSeconds;
+                states.put(symbol, state);
+                // Spread the first polls over one minimum interval instead of firing them all at once
+                schedule(state, ThreadLocalRandom.current().nextLong(1, Math.max(2, minIntervalSeconds)));
+            } else {
+                state.subscribers = subscribers;
+            }
+        }
+        states.values().removeIf(state -> {
+            if (!symbols.contains(state.symbol)) {
+                state.active = false;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void poll(PollState state) {
+        polls.increment();
+        inFlight++;
+        newsService.fetchNewsSinceWatermarkAsync(state.symbol)
+                .publishOn(Schedulers.boundedElastic())
+                .map(response -> newsService.evaluatePolledNews(state.symbol, response))
+                .defaultIfEmpty(0)
+                .subscribe(
+                        newArticles -> onTicker(() -> completed(state, newArticles)),
+                        error -> onTicker(() -> failed(state, error)));
+    }
+
+    private void onTicker(Runnable task) {
+        try {
+            ticker.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void completed(PollState state, int newArticles) {
+        inFlight--;
+        long now = System.currentTimeMillis();
+        if (state.lastPolledAt > 0) {
+            double hours = Math.max(1.0 / 60, (now - state.lastPolledAt) / 3_600_000.0);
+            double rate = newArticles / hours;
+            state.velocity = state.hasVelocity ? VELOCITY_ALPHA * rate + (1 - VELOCITY_ALPHA) * state.velocity : rate;
+            state.hasVelocity = true;
+        }
+        state.lastPolledAt = now;
+        state.intervalSeconds = intervalFor(state);
+        schedule(state, state.intervalSeconds);
+    }
+
+    private void failed(PollState state, Throwable error) {
+        inFlight--;
+        failures.increment();
+        System.err.println("Error polling news for symbol " + state.symbol + ": " + error.getMessage());
+        schedule(state, state.intervalSeconds);
+    }
+
+    // Max interval shrunk by news velocity and (logarithmically) by audience size
+    private long intervalFor(PollState state) {
+        double audience = 1 + Math.log(1 + state.subscribers) / Math.log(2);
+        double seconds = maxIntervalSeconds / ((1 + state.velocity) * audience);
+        return Math.max(minIntervalSeconds, Math.min(maxIntervalSeconds, Math.round(seconds)));
+    }
+
+    private void schedule(PollState state, long delaySeconds) {
+        if (state.active) {
+            wheel.schedule(state, Math.max(1, delaySeconds * 1000 / tickMs));
+        }
+    }
+
+    private static final class PollState {
+        private final String symbol;
+        private boolean active = true;
+        // The first poll only reveals the backlog; velocity is measured from the second poll on
+        private boolean hasVelocity;
+        private long lastPolledAt;
+        private double velocity;
+        private int subscribers;
+        private long intervalSeconds;
+        private double queuedPriority;
+
+        private PollState(String symbol) {
+            this.symbol = symbol;
+        }
+
+        // Symbols many people hold and that are busy go first when the budget is short
+        private double priority() {
+            return (1 + velocity) * (1 + subscribers);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers per-user alerts off the detection path. Recipients of one alert are grouped into
+ * chunks (up to 50 emails per SES bulk call, smsChunkSize phone numbers per task) that run on a
+ * fixed worker pool fed by a bounded queue. When the queue is full the caller waits up to
+ * enqueueTimeoutMs for room; a chunk that still does not fit is dropped, counted and reported back
+ * so the caller can retry the alert later.
+ */
+@Service
+public class AlertDeliveryService {
+
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${alerts.delivery.workers:8}")
+    private int workers;
+
+    @Value("${alerts.delivery.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${alerts.delivery.enqueue-timeout-ms:2000}")
+    private long enqueueTimeoutMs;
+
+    @Value("${alerts.delivery.sms-chunk-size:50}")
+    private int smsChunkSize;
+
+    // Publish a chunk's SMS concurrently through the async SNS client instead of one by one
+    @Value("${aws.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    private ThreadPoolExecutor executor;
+
+    private final Counter emailsSent;
+    private final Counter emailFailures;
+    private final Counter smsSent;
+    private final Counter smsFailures;
+    private final Counter droppedChunks;
+
+    public AlertDeliveryService(NotificationService notificationService, MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.meterRegistry = meterRegistry;
+        this.emailsSent = notifications("email", "sent", meterRegistry);
+        this.emailFailures = notifications("email", "failed", meterRegistry);
+        this.smsSent = notifications("sms", "sent", meterRegistry);
+        this.smsFailures = notifications("sms", "failed", meterRegistry);
+        this.droppedChunks = Counter.builder("stocksentry.delivery.chunks.dropped")
+                .description("Delivery chunks dropped because the queue stayed full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "alert-delivery-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (r, pool) -> {
+                    try {
+                        if (!pool.isShutdown() && pool.getQueue().offer(r, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                            return;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    droppedChunks.increment();
+                    throw new RejectedExecutionException("Alert delivery queue full");
+                });
+        Gauge.builder("stocksentry.delivery.queued", executor, pool -> pool.getQueue().size())
+                .description("Delivery chunks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.delivery.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Delivery chunks being sent")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Returns the number of chunks that could not be queued; their recipients were not notified
+    public int deliver(String symbol, String message, List<User> recipients) {
+        List<String> emails = new ArrayList<>();
+        List<String> phoneNumbers = new ArrayList<>();
+        for (User user : recipients) {
+            if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+                emails.add(user.getEmail());
+            }
+            if (user.getPhoneNumber() != null && !user.getPhoneNumber().isEmpty()) {
+                phoneNumbers.add(user.getPhoneNumber());
+            }
+        }
+
+        int rejected = 0;
+        for (List<String> chunk : chunks(emails, NotificationService.MAX_BULK_DESTINATIONS)) {
+            rejected += submit(() -> sendEmails(chunk, symbol, message));
+        }
+        // SNS PublishBatch only targets topics, so direct SMS stays one Publish per number
+        for (List<String> chunk : chunks(phoneNumbers, Math.max(1, smsChunkSize))) {
+            rejected += submit(() -> sendSms(chunk, symbol, message));
+        }
+        if (rejected > 0) {
+            System.err.println("Alert delivery queue full, dropped " + rejected + " delivery chunks for " + symbol);
+        }
+        return rejected;
+    }
+
+    private int submit(Runnable chunk) {
+        try {
+            executor.execute(chunk);
+            return 0;
+        } catch (RejectedExecutionException e) {
+            return 1;
+        }
+    }
+
+    private void sendEmails(List<String> emails, String symbol, String message) {
+        try {
+            int failed = notificationService.sendBulkEmailAlert(emails, symbol, message);
+            emailsSent.increment(emails.size() - failed);
+            emailFailures.increment(failed);
+        } catch (Exception e) {
+            emailFailures.increment(emails.size());
+            System.err.println("Error sending bulk alert email for " + symbol + ": " + e.getMessage());
+        }
+    }
+
+    private void sendSms(List<String> phoneNumbers, String symbol, String message) {
+        if (asyncEnabled) {
+            sendSmsAsync(phoneNumbers, symbol, message);
+            return;
+        }
+        for (String phoneNumber : phoneNumbers) {
+            try {
+                notificationService.sendSmsAlert(phoneNumber, symbol, message);
+                smsSent.increment();
+            } catch (Exception e) {
+                smsFailures.increment();
+                System.err.println("Error sending SMS alert to " + phoneNumber + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void sendSmsAsync(List<String> phoneNumbers, String symbol, String message) {
+        List<CompletableFuture<Void>> publishes = new ArrayList<>(phoneNumbers.size());
+        for (String phoneNumber : phoneNumbers) {
+            publishes.add(notificationService.sendSmsAlertAsync(phoneNumber, symbol, message)
+                    .whenComplete((ignored, e) -> {
+                        if (e == null) {
+                            smsSent.increment();
+                        } else {
+                            smsFailures.increment();
+                            System.err.println("Error sending SMS alert to " + phoneNumber + ": " + e.getMessage());
+                        }
+                    }));
+        }
+        // Keep the worker busy until the chunk completes so the pool still bounds in-flight SMS
+        try {
+            CompletableFuture.allOf(publishes.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            // Failures were already counted per number
+        }
+    }
+
+    private static Counter notifications(String channel, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("stocksentry.delivery.notifications")
+                .description("Per-user alert notifications by channel and outcome")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static List<List<String>> chunks(List<String> values, int size) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += size) {
+            chunks.add(values.subList(i, Math.min(values.size(), i + size)));
+        }
+        return chunks;
+    }
+}
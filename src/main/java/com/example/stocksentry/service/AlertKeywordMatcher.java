@@ -0,0 +1,81 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+import com.example.stocksentry.exception.StockSentryException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects alert-worthy events in articles using the keyword dictionary at alerts.keywords.location.
+ * Each line is "term,CATEGORY" (blank lines and lines starting with # are ignored).
+ */
+@Component
+public class AlertKeywordMatcher {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${alerts.keywords.location:classpath:alert-keywords.csv}")
+    private String location;
+
+    private volatile KeywordAutomaton automaton;
+
+    public AlertKeywordMatcher(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void load() {
+        Resource resource = resourceLoader.getResource(location);
+        Map<String, String> dictionary = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int comma = line.lastIndexOf(',');
+                String term = comma < 0 ? line : line.substring(0, comma).trim();
+                String category = comma < 0 ? "KEYWORD" : line.substring(comma + 1).trim().toUpperCase(Locale.ROOT);
+                if (!term.isEmpty()) {
+                    dictionary.put(term, category);
+                }
+            }
+        } catch (Exception e) {
+            throw new StockSentryException("Error loading alert keywords from " + location, e);
+        }
+        automaton = KeywordAutomaton.compile(dictionary);
+        System.out.println("Loaded " + dictionary.size() + " alert keywords in " + automaton.getCategories().size() + " categories");
+    }
+
+    // Bitmask of matched categories for one article; 0 when nothing matched
+    public long match(NewsResponse.Article article) {
+        return automaton.match(article.getTitle(), article.getDescription());
+    }
+
+    public long match(List<NewsResponse.Article> articles) {
+        long found = 0;
+        if (articles != null) {
+            for (NewsResponse.Article article : articles) {
+                found |= match(article);
+            }
+        }
+        return found;
+    }
+
+    public Set<String> eventTypes(long mask) {
+        return automaton.categoriesOf(mask);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.ImportRecord;
+import com.example.stocksentry.dto.ImportSummary;
+import com.example.stocksentry.repository.DynamoBatchWriter;
+import com.example.stocksentry.repository.UserRepository;
+import com.example.stocksentry.repository.WatchlistRepository;
+import com.example.stocksentry.service.DownstreamLimiter.Downstream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import of users and watchlists from a streamed body. Records are taken off the stream in
+ * batches of 25 and written through BatchWriteItem, at most import.max-concurrency batches at a
+ * time, so memory stays flat however large the body is. Every record is either counted as written
+ * or reported as a failure with its position in the body.
+ */
+@Service
+public class BulkImportService {
+
+    private final UserRepository userRepository;
+    private final WatchlistRepository watchlistRepository;
+    private final UserService userService;
+    private final WatchlistService watchlistService;
+    private final DownstreamLimiter downstreamLimiter;
+
+    @Value("${import.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${import.max-reported-failures:1000}")
+    private int maxReportedFailures;
+
+    public BulkImportService(UserRepository userRepository, WatchlistRepository watchlistRepository,
+                             UserService userService, WatchlistService watchlistService,
+                             DownstreamLimiter downstreamLimiter) {
+        this.userRepository = userRepository;
+        this.watchlistRepository = watchlistRepository;
+        this.userService = userService;
+        this.watchlistService = watchlistService;
+        this.downstreamLimiter = downstreamLimiter;
+    }
+
+    public Mono<ImportSummary> importRecords(Flux<ImportRecord> records) {
+        long start = System.currentTimeMillis();
+        Tally tally = new Tally();
+        return records
+                .index()
+                .doOnNext(record -> tally.received.incrementAndGet())
+                // A malformed record ends the stream; batches taken before it are still written
+                .onErrorResume(e -> {
+                    tally.aborted = "Body could not be parsed after " + tally.received.get() + " records: " + e.getMessage();
+                    return Flux.empty();
+                })
+                .buffer(DynamoBatchWriter.MAX_BATCH_SIZE)
+                // Batch writes block, so they run off the event loop
+                .flatMap(batch -> Mono.fromRunnable(() -> writeBatch(batch, tally))
+                        .subscribeOn(Schedulers.boundedElastic()), Math.max(1, maxConcurrency))
+                .then(Mono.fromCallable(() -> {
+                    ImportSummary summary = tally.summary(System.currentTimeMillis() - start);
+                    System.out.println("Bulk import: " + summary.getReceived() + " records, " + summary.getUsers()
+                            + " users, " + summary.getWatchlists() + " watchlists, " + summary.getFailed()
+                            + " failed in " + summary.getDurationMs() + " ms");
+                    return summary;
+                }));
+    }
+
+    private void writeBatch(List<Tuple2<Long, ImportRecord>> batch, Tally tally) {
+        // BatchWriteItem rejects a request holding the same key twice; the later record wins,
+        // as it would with one put each
+        Map<String, Pending> users = new LinkedHashMap<>();
+        Map<String, Pending> watchlists = new LinkedHashMap<>();
+        for (Tuple2<Long, ImportRecord> entry : batch) {
+            long index = entry.getT1();
+            ImportRecord record = entry.getT2();
+            try {
+                Map<String, Pending> target;
+                Map<String, AttributeValue> item;
+                if (isWatchlist(record)) {
+                    require(record.getUserId(), "userId");
+                    require(record.getName(), "name");
+                    String id = record.getId() == null || record.getId().isBlank()
+                            ? UUID.randomUUID().toString() : record.getId();
+                    item = WatchlistRepository.importItem(id, record.getUserId(), record.getName(), record.getSymbols());
+                    target = watchlists;
+                } else {
+                    require(record.getUserId(), "userId");
+                    item = UserRepository.importItem(record.getUserId(), record.getName(), record.getEmail(),
+                            record.getPhoneNumber());
+                    target = users;
+                }
+                String key = keyOf(item);
+                Pending pending = new Pending(index, item, new ArrayList<>());
+                Pending superseded = target.put(key, pending);
+                if (superseded != null) {
+                    // Shares the outcome of the record that replaced it
+                    pending.superseded().addAll(superseded.superseded());
+                    pending.superseded().add(superseded.index());
+                }
+            } catch (IllegalArgumentException e) {
+                tally.fail(index, record.getId() != null ? record.getUserId() + "/" + record.getId() : record.getUserId(),
+                        e.getMessage());
+            }
+        }
+        write(users, false, tally);
+        write(watchlists, true, tally);
+    }
+
+    private void write(Map<String, Pending> pending, boolean watchlists, Tally tally) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map<String, AttributeValue>> items = new ArrayList<>(pending.size());
+        for (Pending entry : pending.values()) {
+            items.add(entry.item());
+        }
+        Set<String> unwritten = new HashSet<>();
+        try {
+            List<Map<String, AttributeValue>> failed = downstreamLimiter.call(Downstream.DYNAMODB,
+                    () -> watchlists ? watchlistRepository.putAll(items) : userRepository.putAll(items));
+            for (Map<String, AttributeValue> item : failed) {
+                unwritten.add(keyOf(item));
+            }
+        } catch (Exception e) {
+            System.err.println("Error bulk writing " + items.size() + (watchlists ? " watchlists: " : " users: ") + e.getMessage());
+            pending.forEach((key, entry) -> entry.indexes().forEach(index -> tally.fail(index, key, e.getMessage())));
+            return;
+        }
+
+        Set<String> touchedUsers = new HashSet<>();
+        pending.forEach((key, entry) -> {
+            if (unwritten.contains(key)) {
+                entry.indexes().forEach(index -> tally.fail(index, key, "Still unprocessed after retries"));
+                return;
+            }
+            (watchlists ? tally.watchlists : tally.users).addAndGet(1 + entry.superseded().size());
+            touchedUsers.add(entry.item().get("userId").s());
+        });
+        for (String userId : touchedUsers) {
+            if (watchlists) {
+                watchlistService.invalidate(userId);
+            } else {
+                userService.invalidateUser(userId);
+            }
+        }
+    }
+
+    private static boolean isWatchlist(ImportRecord record) {
+        if (record.getType() == null || record.getType().isBlank()) {
+            return record.getId() != null || record.getSymbols() != null;
+        }
+        switch (record.getType().toLowerCase(Locale.ROOT)) {
+            case "watchlist":
+                return true;
+            case "user":
+                return false;
+            default:
+                throw new IllegalArgumentException("Unknown record type " + record.getType());
+        }
+    }
+
+    private static void require(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + field);
+        }
+    }
+
+    // userId for users, userId/watchlistId for watchlists
+    private static String keyOf(Map<String, AttributeValue> item) {
+        AttributeValue id = item.get("id");
+        return id == null ? item.get("userId").s() : item.get("userId").s() + "/" + id.s();
+    }
+
+    // superseded: earlier records in the batch with the same key, replaced by this one
+    private record Pending(long index, Map<String, AttributeValue> item, List<Long> superseded) {
+
+        List<Long> indexes() {
+            List<Long> indexes = new ArrayList<>(superseded);
+            indexes.add(index);
+            return indexes;
+        }
+    }
+
+    private final class Tally {
+        final AtomicLong received = new AtomicLong();
+        final AtomicLong users = new AtomicLong();
+        final AtomicLong watchlists = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final List<ImportSummary.Failure> failures = new ArrayList<>();
+        volatile String aborted;
+
+        void fail(long index, String key, String error) {
+            failed.incrementAndGet();
+            synchronized (failures) {
+                if (failures.size() < maxReportedFailures) {
+                    failures.add(new ImportSummary.Failure(index, key, error));
+                }
+            }
+        }
+
+        ImportSummary summary(long durationMs) {
+            ImportSummary summary = new ImportSummary();
+            summary.setReceived(received.get());
+            summary.setUsers(users.get());
+            summary.setWatchlists(watchlists.get());
+            summary.setFailed(failed.get());
+            summary.setDurationMs(durationMs);
+            summary.setAborted(aborted);
+            List<ImportSummary.Failure> sorted;
+            synchronized (failures) {
+                sorted = new ArrayList<>(failures);
+            }
+            sorted.sort(Comparator.comparingLong(ImportSummary.Failure::getIndex));
+            summary.setFailures(sorted);
+            return summary;
+        }
+    }
+}
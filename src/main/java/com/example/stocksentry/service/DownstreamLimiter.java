@@ -0,0 +1,87 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.exception.StockSentryException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent calls per downstream service. With virtual threads the number of threads is no
+ * longer what bounds the load on NewsAPI, DynamoDB, SES or SNS, so every blocking call site that
+ * can fan out takes a permit from here first.
+ */
+@Component
+public class DownstreamLimiter {
+
+    public enum Downstream { NEWSAPI, DYNAMODB, SES, SNS }
+
+    private final Map<Downstream, Semaphore> permits = new EnumMap<>(Downstream.class);
+
+    public DownstreamLimiter(@Value("${downstream.max-concurrent.newsapi:64}") int newsApi,
+                             @Value("${downstream.max-concurrent.dynamodb:128}") int dynamoDb,
+                             @Value("${downstream.max-concurrent.ses:16}") int ses,
+                             @Value("${downstream.max-concurrent.sns:32}") int sns,
+                             MeterRegistry meterRegistry) {
+        register(Downstream.NEWSAPI, newsApi, meterRegistry);
+        register(Downstream.DYNAMODB, dynamoDb, meterRegistry);
+        register(Downstream.SES, ses, meterRegistry);
+        register(Downstream.SNS, sns, meterRegistry);
+    }
+
+    public void acquire(Downstream downstream) {
+        try {
+            permits.get(downstream).acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockSentryException("Interrupted waiting for " + downstream + " capacity", e);
+        }
+    }
+
+    public void release(Downstream downstream) {
+        permits.get(downstream).release();
+    }
+
+    public <T> T call(Downstream downstream, Supplier<T> call) {
+        acquire(downstream);
+        try {
+            return call.get();
+        } finally {
+            release(downstream);
+        }
+    }
+
+    public void run(Downstream downstream, Runnable call) {
+        acquire(downstream);
+        try {
+            call.run();
+        } finally {
+            release(downstream);
+        }
+    }
+
+    private void register(Downstream downstream, int limit, MeterRegistry meterRegistry) {
+        int bounded = Math.max(1, limit);
+        Semaphore semaphore = new Semaphore(bounded);
+        permits.put(downstream, semaphore);
+
+        String tag = downstream.name().toLowerCase();
+        Gauge.builder("stocksentry.downstream.limit", () -> bounded)
+                .description("Concurrent calls allowed to the downstream")
+                .tag("downstream", tag)
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.downstream.in.flight", semaphore, s -> bounded - s.availablePermits())
+                .description("Calls to the downstream holding a permit")
+                .tag("downstream", tag)
+                .register(meterRegistry);
+        Gauge.builder("stocksentry.downstream.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Callers waiting for a permit to the downstream")
+                .tag("downstream", tag)
+                .register(meterRegistry);
+    }
+}
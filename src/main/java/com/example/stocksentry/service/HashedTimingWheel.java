@@ -0,0 +1,69 @@
+package com.example.stocksentry.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a ring of slots, one per tick. An item due in d ticks goes into slot
+ * (current + d) mod size and carries the number of full turns it still has to wait, so scheduling
+ * and expiry are O(1) regardless of how many items are pending. Not thread-safe; the owner drives
+ * it from a single thread.
+ */
+final class HashedTimingWheel<T> {
+
+    private final List<ArrayDeque<Slot<T>>> slots;
+    private long tick;
+    private int size;
+
+    HashedTimingWheel(int wheelSize) {
+        slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+    }
+
+    void schedule(T item, long delayTicks) {
+        long delay = Math.max(1, delayTicks);
+        int wheelSize = slots.size();
+        int index = (int) ((tick + delay) % wheelSize);
+        slots.get(index).add(new Slot<>(item, (delay - 1) / wheelSize));
+        size++;
+    }
+
+    // Moves the wheel one tick forward and hands every item that became due to the consumer
+    void advance(Consumer<T> onDue) {
+        tick++;
+        ArrayDeque<Slot<T>> slot = slots.get((int) (tick % slots.size()));
+        List<T> due = new ArrayList<>();
+        Iterator<Slot<T>> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            Slot<T> entry = iterator.next();
+            if (entry.rounds == 0) {
+                iterator.remove();
+                size--;
+                due.add(entry.item);
+            } else {
+                entry.rounds--;
+            }
+        }
+        // Consumers may reschedule, which can land in this very slot
+        due.forEach(onDue);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static final class Slot<T> {
+        private final T item;
+        private long rounds;
+
+        private Slot(T item, long rounds) {
+            this.item = item;
+            this.rounds = rounds;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.stocksentry.service;
+
+import java.util.*;
+
+/**
+ * Case-insensitive Aho-Corasick matcher compiled to a dense transition table. Matching walks each
+ * input character once with a single array lookup and allocates nothing; the result is a bitmask
+ * of the categories (at most 64) whose terms occur anywhere in the input as substrings.
+ */
+public final class KeywordAutomaton {
+
+    private final char[] columnOf;      // input char -> alphabet column, 0 for chars in no term
+    private final int columns;
+    private final int[] transitions;    // state * columns + column -> next state
+    private final long[] outputs;       // state -> categories of every term ending here
+    private final List<String> categories;
+
+    private KeywordAutomaton(char[] columnOf, int columns, int[] transitions, long[] outputs, List<String> categories) {
+        this.columnOf = columnOf;
+        this.columns = columns;
+        this.transitions = transitions;
+        this.outputs = outputs;
+        this.categories = categories;
+    }
+
+    // termToCategory: keyword -> event category, e.g. "earnings" -> "EARNINGS"
+    public static KeywordAutomaton compile(Map<String, String> termToCategory) {
+        List<String> categories = new ArrayList<>();
+        Map<String, Integer> categoryBits = new HashMap<>();
+        for (String category : termToCategory.values()) {
+            if (!categoryBits.containsKey(category)) {
+                if (categories.size() == Long.SIZE) {
+                    throw new IllegalArgumentException("At most " + Long.SIZE + " keyword categories are supported");
+                }
+                categoryBits.put(category, categories.size());
+                categories.add(category);
+            }
+        }
+
+        // Alphabet: every folded char used by a term gets a column; column 0 is "any other char"
+        char[] columnOf = new char[Character.MAX_VALUE + 1];
+        Map<Character, Integer> alphabet = new HashMap<>();
+        for (String term : termToCategory.keySet()) {
+            for (int i = 0; i < term.length(); i++) {
+                alphabet.putIfAbsent(fold(term.charAt(i)), alphabet.size() + 1);
+            }
+        }
+        int columns = alphabet.size() + 1;
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            Integer column = alphabet.get(fold((char) c));
+            if (column != null) {
+                columnOf[c] = (char) (int) column;
+            }
+        }
+
+        // Trie
+        List<int[]> children = new ArrayList<>();
+        List<Long> trieOutputs = new ArrayList<>();
+        children.add(newRow(columns));
+        trieOutputs.add(0L);
+        for (Map.Entry<String, String> entry : termToCategory.entrySet()) {
+            String term = entry.getKey();
+            if (term.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int column = columnOf[term.charAt(i)];
+                int next = children.get(state)[column];
+                if (next < 0) {
+                    next = children.size();
+                    children.add(newRow(columns));
+                    trieOutputs.add(0L);
+                    children.get(state)[column] = next;
+                }
+                state = next;
+            }
+            trieOutputs.set(state, trieOutputs.get(state) | (1L << categoryBits.get(entry.getValue())));
+        }
+
+        // Breadth-first failure links, folded into a full transition table
+        int states = children.size();
+        int[] transitions = new int[states * columns];
+        long[] outputs = new long[states];
+        int[] fail = new int[states];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = trieOutputs.get(s);
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < columns; column++) {
+            int child = children.get(0)[column];
+            if (child > 0) {
+                fail[child] = 0;
+                transitions[column] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] |= outputs[fail[state]];
+            int[] row = children.get(state);
+            for (int column = 0; column < columns; column++) {
+                int child = row[column];
+                if (child > 0) {
+                    fail[child] = transitions[fail[state] * columns + column];
+                    transitions[state * columns + column] = child;
+                    queue.add(child);
+                } else {
+                    transitions[state * columns + column] = transitions[fail[state] * columns + column];
+                }
+            }
+        }
+
+        return new KeywordAutomaton(columnOf, columns, transitions, outputs, List.copyOf(categories));
+    }
+
+    public long match(CharSequence text) {
+        int state = 0;
+        long found = 0;
+        if (text != null) {
+            for (int i = 0, n = text.length(); i < n; i++) {
+                state = transitions[state * columns + columnOf[text.charAt(i)]];
+                found |= outputs[state];
+            }
+        }
+        return found;
+    }
+
+    // Title and description are scanned as one text separated by a space, without concatenating them
+    public long match(CharSequence title, CharSequence description) {
+        int state = 0;
+        long found = 0;
+        if (title != null) {
+            for (int i = 0, n = title.length(); i < n; i++) {
+                state = transitions[state * columns + columnOf[title.charAt(i)]];
+                found |= outputs[state];
+            }
+        }
+        state = transitions[state * columns + columnOf[' ']];
+        found |= outputs[state];
+        if (description != null) {
+            for (int i = 0, n = description.length(); i < n; i++) {
+                state = transitions[state * columns + columnOf[description.charAt(i)]];
+                found |= outputs[state];
+            }
+        }
+        return found;
+    }
+
+    public Set<String> categoriesOf(long mask) {
+        Set<String> matched = new LinkedHashSet<>();
+        for (int bit = 0; bit < categories.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                matched.add(categories.get(bit));
+            }
+        }
+        return matched;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int[] newRow(int columns) {
+        int[] row = new int[columns];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Packs several symbols into one NewsAPI "q" expression (AAPL OR MSFT OR ...) and routes the
+ * returned articles back to the symbols they mention.
+ */
+public final class NewsQueryBatcher {
+
+    // NewsAPI rejects q values longer than 500 characters once URL-encoded
+    public static final int MAX_QUERY_LENGTH = 500;
+
+    private static final String SEPARATOR = " OR ";
+
+    private NewsQueryBatcher() {
+    }
+
+    public static List<List<String>> partition(Collection<String> symbols, int maxSymbolsPerBatch) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentLength = 0;
+        int separatorLength = encodedLength(SEPARATOR);
+
+        for (String symbol : symbols) {
+            int termLength = encodedLength(term(symbol));
+            int lengthWithTerm = current.isEmpty() ? termLength : currentLength + separatorLength + termLength;
+            if (!current.isEmpty() && (lengthWithTerm > MAX_QUERY_LENGTH || current.size() >= maxSymbolsPerBatch)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                lengthWithTerm = termLength;
+            }
+            current.add(symbol);
+            currentLength = lengthWithTerm;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    public static String buildQuery(List<String> symbols) {
+        StringJoiner query = new StringJoiner(SEPARATOR);
+        for (String symbol : symbols) {
+            query.add(term(symbol));
+        }
+        return query.toString();
+    }
+
+    // Splits one batched response into per-symbol responses; an article mentioning several symbols goes to each
+    public static Map<String, NewsResponse> demultiplex(List<String> symbols, NewsResponse response) {
+        Map<String, Pattern> patterns = new LinkedHashMap<>();
+        Map<String, List<NewsResponse.Article>> routed = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            patterns.put(symbol, Pattern.compile("(?<![\\p{Alnum}])" + Pattern.quote(symbol) + "(?![\\p{Alnum}])",
+                    Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+            routed.put(symbol, new ArrayList<>());
+        }
+
+        if (response != null && response.getArticles() != null) {
+            for (NewsResponse.Article article : response.getArticles()) {
+                for (Map.Entry<String, Pattern> entry : patterns.entrySet()) {
+                    Pattern pattern = entry.getValue();
+                    if (mentions(pattern, article.getTitle())
+                            || mentions(pattern, article.getDescription())
+                            || mentions(pattern, article.getContent())) {
+                        routed.get(entry.getKey()).add(article);
+                    }
+                }
+            }
+        }
+
+        Map<String, NewsResponse> result = new LinkedHashMap<>();
+        for (Map.Entry<String, List<NewsResponse.Article>> entry : routed.entrySet()) {
+            NewsResponse perSymbol = new NewsResponse();
+            perSymbol.setStatus(response != null ? response.getStatus() : null);
+            perSymbol.setTotalResults(entry.getValue().size());
+            perSymbol.setArticles(entry.getValue());
+            result.put(entry.getKey(), perSymbol);
+        }
+        return result;
+    }
+
+    private static boolean mentions(Pattern pattern, String text) {
+        return text != null && pattern.matcher(text).find();
+    }
+
+    // Quote anything that is not a plain ticker so NewsAPI treats it as one phrase (e.g. "BRK.B")
+    private static String term(String symbol) {
+        for (int i = 0; i < symbol.length(); i++) {
+            if (!Character.isLetterOrDigit(symbol.charAt(i))) {
+                return "\"" + symbol.replace("\"", "") + "\"";
+            }
+        }
+        return symbol;
+    }
+
+    private static int encodedLength(String value) {
+        // URLEncoder writes spaces as '+', the request URI carries them as %20
+        String encoded = URLEncoder.encode(value, StandardCharsets.UTF_8);
+        int spaces = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            if (encoded.charAt(i) == '+') {
+                spaces++;
+            }
+        }
+        return encoded.length() + spaces * 2;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Incremental projection of a NewsAPI response body. Chunks are fed to Jackson's non-blocking
+ * parser as they arrive and only status, totalResults and each article's title, description,
+ * url and publishedAt are materialized; content, source and the other fields are skipped
+ * without building strings for them, and the body is never held in memory as a whole. If a stop
+ * predicate is given, parsing ends (and the rest of the body is discarded) right after the first
+ * article it accepts.
+ */
+final class NewsResponseStreamParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final Predicate<NewsResponse.Article> stopWhen;
+
+    private final NewsResponse response = new NewsResponse();
+    private final List<NewsResponse.Article> articles = new ArrayList<>();
+
+    private int depth;
+    // > 0 while inside a value that is not needed; counts nested objects/arrays
+    private int skipping;
+    private String field;
+    private boolean inArticles;
+    private NewsResponse.Article article;
+    private boolean complete;
+    private boolean stopped;
+
+    private NewsResponseStreamParser(Predicate<NewsResponse.Article> stopWhen) throws IOException {
+        this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.stopWhen = stopWhen;
+    }
+
+    static Mono<NewsResponse> parse(Flux<DataBuffer> body, Predicate<NewsResponse.Article> stopWhen) {
+        return Mono.defer(() -> {
+            NewsResponseStreamParser projection;
+            try {
+                projection = new NewsResponseStreamParser(stopWhen);
+            } catch (IOException e) {
+                return Mono.error(new DecodingException("Error creating NewsAPI response parser", e));
+            }
+            return body.map(projection::feed)
+                    .takeUntil(stopped -> stopped)
+                    .then(Mono.fromCallable(projection::finish));
+        });
+    }
+
+    // Returns true once parsing can stop early
+    private boolean feed(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+            return stopped;
+        } catch (IOException e) {
+            throw new DecodingException("Error parsing NewsAPI response: " + e.getMessage(), e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private NewsResponse finish() {
+        try {
+            if (!stopped) {
+                feeder.endOfInput();
+                drain();
+            }
+            parser.close();
+        } catch (IOException e) {
+            throw new DecodingException("Error parsing NewsAPI response: " + e.getMessage(), e);
+        }
+        if (!stopped && !complete) {
+            throw new DecodingException("Truncated NewsAPI response");
+        }
+        response.setArticles(articles);
+        return response;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!stopped && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (skipping > 0) {
+            if (token.isStructStart()) {
+                skipping++;
+            } else if (token.isStructEnd()) {
+                skipping--;
+            }
+            return;
+        }
+        if (token == JsonToken.FIELD_NAME) {
+            field = parser.currentName();
+            return;
+        }
+
+        if (token.isStructStart()) {
+            depth++;
+            if (depth == 1) {
+                return;
+            }
+            if (depth == 2 && token == JsonToken.START_ARRAY && "articles".equals(field)) {
+                inArticles = true;
+                return;
+            }
+            if (depth == 3 && token == JsonToken.START_OBJECT && inArticles) {
+                article = new NewsResponse.Article();
+                return;
+            }
+            // A nested value nobody reads, e.g. the article's "source" object
+            depth--;
+            skipping = 1;
+            return;
+        }
+
+        if (token.isStructEnd()) {
+            depth--;
+            if (depth == 0) {
+                complete = true;
+            } else if (depth == 1 && inArticles) {
+                inArticles = false;
+            } else if (depth == 2 && article != null) {
+                articles.add(article);
+                if (stopWhen != null && stopWhen.test(article)) {
+                    stopped = true;
+                }
+                article = null;
+            }
+            return;
+        }
+
+        // Scalar value: only read the text of fields that are kept
+        if (field == null) {
+            return;
+        }
+        if (depth == 1) {
+            if ("status".equals(field) && token == JsonToken.VALUE_STRING) {
+                response.setStatus(parser.getText());
+            } else if ("totalResults".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                response.setTotalResults(parser.getIntValue());
+            }
+        } else if (depth == 3 && article != null && token == JsonToken.VALUE_STRING) {
+            switch (field) {
+                case "title" -> article.setTitle(parser.getText());
+                case "description" -> article.setDescription(parser.getText());
+                case "url" -> article.setUrl(parser.getText());
+                case "publishedAt" -> article.setPublishedAt(parser.getText());
+                default -> {
+                    // content, author, urlToImage: not needed for alerting
+                }
+            }
+        }
+    }
+}
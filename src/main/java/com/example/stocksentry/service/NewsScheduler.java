@@ -1,12 +1,36 @@
 package com.example.stocksentry.service;
 
 
+import com.example.stocksentry.dto.NewsResponse;
+import com.example.stocksentry.dto.ScanCycleStats;
 import com.example.stocksentry.dto.Watchlist;
+import com.example.stocksentry.service.DownstreamLimiter.Downstream;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Component
 public class NewsScheduler {
@@ -20,17 +44,310 @@ public class NewsScheduler {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DownstreamLimiter downstreamLimiter;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ShardCoordinator shardCoordinator;
+
+    @Autowired
+    private AdaptiveNewsPoller adaptivePoller;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // When true, each distinct symbol is fetched and evaluated once per cycle
+    @Value("${newsscheduler.dedupe-symbols:true}")
+    private boolean dedupeSymbols;
+
+    @Value("${newsapi.max-in-flight:64}")
+    private int maxInFlight;
+
+    // Pack several symbols into one NewsAPI query (q=AAPL OR MSFT OR ...)
+    @Value("${newsapi.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${newsapi.batch.max-symbols:10}")
+    private int batchMaxSymbols;
+
+    private volatile ScanCycleStats lastCycleStats;
+
+    // One virtual thread per user or symbol task when spring.threads.virtual.enabled is on (Java 21+)
+    private SimpleAsyncTaskExecutor virtualThreadExecutor;
+
+    @PostConstruct
+    public void initExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            virtualThreadExecutor = new SimpleAsyncTaskExecutor("news-scan-");
+            virtualThreadExecutor.setVirtualThreads(true);
+        }
+    }
+
     @Scheduled(fixedRate = 600000) // Every 10 minutes
     public void checkNewsForAllWatchlists() {
+        if (adaptivePoller.isEnabled()) {
+            // Symbols are polled individually on their own intervals instead
+            return;
+        }
+        String mode = dedupeSymbols ? (virtualThreadExecutor != null ? "virtual" : "deduped") : "per-occurrence";
+        Timer.Sample cycle = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            if (dedupeSymbols && virtualThreadExecutor != null) {
+                runVirtualThreadCycle();
+            } else if (dedupeSymbols) {
+                runDedupedCycle();
+            } else {
+                runPerOccurrenceCycle();
+            }
+        } catch (RuntimeException | Error e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            // Failed cycles are recorded too; they are often the slow ones
+            cycle.stop(Timer.builder("stocksentry.scan.cycle")
+                    .description("Duration of a full news scan cycle")
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    public ScanCycleStats getLastCycleStats() {
+        return lastCycleStats;
+    }
+
+    private void runDedupedCycle() {
+        long start = System.currentTimeMillis();
+        ScanCycleStats stats = new ScanCycleStats();
+        stats.setStartedAt(Instant.ofEpochMilli(start).toString());
+
+        try {
+            // First pass: collect the distinct symbol universe
+            Set<String> symbols = new LinkedHashSet<>();
+            int users = 0;
+            int occurrences = 0;
+            try (Stream<String> userIds = userService.streamAllUserIds()) {
+                Iterator<String> iterator = userIds.iterator();
+                while (iterator.hasNext()) {
+                    String userId = iterator.next();
+                    users++;
+                    try {
+                        for (Watchlist watchlist : watchlistService.getWatchlists(userId)) {
+                            if (watchlist.getSymbols() == null) {
+                                continue;
+                            }
+                            for (String symbol : watchlist.getSymbols()) {
+                                if (symbol == null || symbol.isBlank()) {
+                                    continue;
+                                }
+                                occurrences++;
+                                // Same key as the news cache, watermarks and shards, so "aapl" and "AAPL " share a fetch
+                                symbols.add(NewsService.normalizeSymbol(symbol));
+                            }
+                        }
+                    } catch (Exception e) {
+                        System.err.println("Error processing watchlists for user " + userId + ": " + e.getMessage());
+                    }
+                }
+            }
+
+            // Second pass: fetch and evaluate each symbol exactly once, up to maxInFlight requests at a time
+            Set<String> owned = ownedSymbols(symbols, stats);
+            AtomicInteger failed = new AtomicInteger();
+            if (batchEnabled) {
+                List<List<String>> batches = NewsQueryBatcher.partition(owned, Math.max(1, batchMaxSymbols));
+                stats.setNewsApiRequests(batches.size());
+                Flux.fromIterable(batches)
+                        .flatMap(batch -> newsService.checkAndNotifyAlertsBatchAsync(batch)
+                                .onErrorResume(e -> {
+                                    System.err.println("Error checking alerts for batch " + batch + ": " + e.getMessage());
+                                    return Mono.just(batch.size());
+                                }), Math.max(1, maxInFlight))
+                        .doOnNext(failed::addAndGet)
+                        .blockLast();
+            } else {
+                stats.setNewsApiRequests(owned.size());
+                Flux.fromIterable(owned)
+                        .flatMap(symbol -> newsService.checkAndNotifyAlertsAsync(symbol)
+                                .onErrorResume(e -> {
+                                    failed.incrementAndGet();
+                                    System.err.println("Error checking alerts for symbol " + symbol + ": " + e.getMessage());
+                                    return Mono.empty();
+                                }), Math.max(1, maxInFlight))
+                        .blockLast();
+            }
+
+            stats.setUsers(users);
+            stats.setTotalOccurrences(occurrences);
+            stats.setDistinctSymbols(symbols.size());
+            stats.setCallsSaved(occurrences - symbols.size());
+            stats.setFailedSymbols(failed.get());
+        } catch (Exception e) {
+            System.err.println("Error in scheduled news check: " + e.getMessage());
+        }
+
+        finishCycle(stats, start);
+    }
+
+    /**
+     * Same two passes as the deduped cycle, but every user and every symbol gets its own virtual
+     * thread doing plain blocking calls. A permit for the downstream is taken before the thread is
+     * started, so the walk never runs further ahead than the per-downstream limits allow.
+     */
+    private void runVirtualThreadCycle() {
+        long start = System.currentTimeMillis();
+        ScanCycleStats stats = new ScanCycleStats();
+        stats.setStartedAt(Instant.ofEpochMilli(start).toString());
+
+        try {
+            Set<String> symbols = ConcurrentHashMap.newKeySet();
+            AtomicInteger occurrences = new AtomicInteger();
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            int users = 0;
+            try (Stream<String> userIds = userService.streamAllUserIds()) {
+                Iterator<String> iterator = userIds.iterator();
+                while (iterator.hasNext()) {
+                    String userId = iterator.next();
+                    users++;
+                    tasks.add(fork(Downstream.DYNAMODB, release -> {
+                        for (Watchlist watchlist : watchlistService.getWatchlists(userId)) {
+                            if (watchlist.getSymbols() == null) {
+                                continue;
+                            }
+                            for (String symbol : watchlist.getSymbols()) {
+                                if (symbol != null && !symbol.isBlank()) {
+                                    occurrences.incrementAndGet();
+                                    symbols.add(NewsService.normalizeSymbol(symbol));
+                                }
+                            }
+                        }
+                    }, "Error processing watchlists for user " + userId));
+                }
+            }
+            join(tasks);
+
+            Set<String> owned = ownedSymbols(symbols, stats);
+            AtomicInteger failed = new AtomicInteger();
+            tasks = new ArrayList<>();
+            if (batchEnabled) {
+                List<List<String>> batches = NewsQueryBatcher.partition(owned, Math.max(1, batchMaxSymbols));
+                stats.setNewsApiRequests(batches.size());
+                for (List<String> batch : batches) {
+                    tasks.add(fork(Downstream.NEWSAPI, release -> {
+                        Map<String, NewsResponse> responses = newsService.fetchNewsForSymbolsAsync(batch).block();
+                        release.run();
+                        for (String symbol : batch) {
+                            NewsResponse response = responses == null ? null : responses.get(symbol);
+                            evaluate(symbol, () -> newsService.evaluateAndNotify(symbol, response), failed);
+                        }
+                    }, "Error checking alerts for batch " + batch, () -> failed.addAndGet(batch.size())));
+                }
+            } else {
+                stats.setNewsApiRequests(owned.size());
+                for (String symbol : owned) {
+                    tasks.add(fork(Downstream.NEWSAPI, release -> {
+                        NewsResponse response = newsService.fetchNewsSinceWatermarkAsync(symbol).block();
+                        release.run();
+                        evaluate(symbol, () -> newsService.evaluatePolledNews(symbol, response), failed);
+                    }, "Error checking alerts for symbol " + symbol, failed::incrementAndGet));
+                }
+            }
+            join(tasks);
+
+            stats.setUsers(users);
+            stats.setTotalOccurrences(occurrences.get());
+            stats.setDistinctSymbols(symbols.size());
+            stats.setCallsSaved(occurrences.get() - symbols.size());
+            stats.setFailedSymbols(failed.get());
+        } catch (Exception e) {
+            System.err.println("Error in scheduled news check: " + e.getMessage());
+        }
+
+        finishCycle(stats, start);
+    }
+
+    // Evaluation takes DynamoDB, SNS and SES permits around the individual calls it makes
+    private void evaluate(String symbol, Runnable evaluation, AtomicInteger failed) {
+        try {
+            evaluation.run();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            System.err.println("Error checking alerts for symbol " + symbol + ": " + e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> fork(Downstream downstream, Consumer<Runnable> task, String errorMessage) {
+        return fork(downstream, task, errorMessage, () -> { });
+    }
+
+    // Takes the permit on the caller's thread and hands it to the task; the task may release it
+    // early (e.g. once the NewsAPI response is in), otherwise it is released when the task ends
+    private CompletableFuture<Void> fork(Downstream downstream, Consumer<Runnable> task, String errorMessage, Runnable onError) {
+        downstreamLimiter.acquire(downstream);
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) {
+                downstreamLimiter.release(downstream);
+            }
+        };
+        return CompletableFuture.runAsync(() -> {
+            try {
+                task.accept(release);
+            } catch (Exception e) {
+                onError.run();
+                System.err.println(errorMessage + ": " + e.getMessage());
+            } finally {
+                release.run();
+            }
+        }, virtualThreadExecutor);
+    }
+
+    private static void join(List<CompletableFuture<Void>> tasks) {
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+    }
+
+    // In cluster mode only the symbols in shards leased by this node are fetched here
+    private Set<String> ownedSymbols(Set<String> symbols, ScanCycleStats stats) {
+        if (!shardCoordinator.isEnabled()) {
+            return symbols;
+        }
+        Set<String> owned = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (shardCoordinator.owns(symbol)) {
+                owned.add(symbol);
+            }
+        }
+        stats.setOtherNodeSymbols(symbols.size() - owned.size());
+        return owned;
+    }
+
+    private void finishCycle(ScanCycleStats stats, long start) {
+        stats.setDurationMs(System.currentTimeMillis() - start);
+        lastCycleStats = stats;
+        System.out.println("News scan cycle finished: " + stats.getDistinctSymbols() + " distinct symbols, "
+                + stats.getTotalOccurrences() + " occurrences, " + stats.getCallsSaved() + " calls saved, "
+                + stats.getNewsApiRequests() + " NewsAPI requests, "
+                + stats.getOtherNodeSymbols() + " left to other nodes, "
+                + stats.getFailedSymbols() + " failed, " + stats.getDurationMs() + " ms");
+    }
+
+    private void runPerOccurrenceCycle() {
         try {
             // Fetch all user IDs dynamically
             List<String> userIds = userService.getAllUserIds();
-            
+
             for (String userId : userIds) {
                 try {
                     List<Watchlist> watchlists = watchlistService.getWatchlists(userId);
                     for (Watchlist watchlist : watchlists) {
                         for (String symbol : watchlist.getSymbols()) {
+                            if (!shardCoordinator.owns(symbol)) {
+                                continue;
+                            }
                             try {
                                 newsService.checkAndNotifyAlerts(symbol);
                             } catch (Exception e) {
@@ -2,13 +2,35 @@ package com.example.stocksentry.service;
 
 
 import com.example.stocksentry.dto.NewsResponse;
+import com.example.stocksentry.dto.User;
 import com.example.stocksentry.repository.AlertLogRepository;
+import com.example.stocksentry.repository.SymbolSubscriptionIndex;
+import com.example.stocksentry.service.DownstreamLimiter.Downstream;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 public class NewsService {
@@ -16,7 +38,43 @@ public class NewsService {
     @Value("${newsapi.key}")
     private String apiKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private WebClient newsApiWebClient;
+
+    @Value("${newsapi.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${newsapi.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    // Scheduler polls ask only for articles newer than the symbol's publishedAt watermark
+    @Value("${newsapi.incremental.enabled:true}")
+    private boolean incrementalEnabled;
+
+    @Value("${newsapi.incremental.page-size:20}")
+    private int incrementalPageSize;
+
+    @Value("${newsapi.incremental.max-pages:5}")
+    private int incrementalMaxPages;
+
+    // NewsAPI indexes some articles late; re-ask for a short window before the watermark
+    @Value("${newsapi.incremental.overlap-minutes:15}")
+    private long incrementalOverlapMinutes;
+
+    @Autowired
+    private NewsWatermarkStore watermarkStore;
+
+    // Polls parse the body incrementally and keep only the fields alerting reads
+    @Value("${newsapi.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    // Stop reading a response at the first matching article; only honoured with the seen-article
+    // store disabled, since the unread articles would otherwise never be marked seen
+    @Value("${newsapi.streaming.stop-on-first-match:false}")
+    private boolean stopOnFirstMatch;
+
+    // Normalized symbol -> in-flight or completed response; concurrent misses share one request
+    private AsyncCache<String, NewsResponse> newsCache;
 
     @Autowired
     private NotificationService notificationService;
@@ -25,21 +83,165 @@ public class NewsService {
     private AlertLogRepository alertLogRepository;
 
     @Autowired
-    private UserService userService;
+    private RecipientResolver recipientResolver;
+
+    @Autowired
+    private SeenArticleStore seenArticleStore;
+
+    @Autowired
+    private AlertKeywordMatcher keywordMatcher;
+
+    @Autowired
+    private AlertDeliveryService alertDeliveryService;
+
+    @Autowired
+    private DownstreamLimiter downstreamLimiter;
 
     @Autowired
-    private WatchlistService watchlistService;
+    private MeterRegistry meterRegistry;
+
+    private Timer evaluationTimer;
+    private Timer dispatchTimer;
+    private Counter alertsTriggered;
+
+    @PostConstruct
+    public void initCache() {
+        newsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, newsCache, "news");
+
+        evaluationTimer = Timer.builder("stocksentry.alert.evaluation")
+                .description("Seen-article filtering and keyword detection for one symbol")
+                .register(meterRegistry);
+        dispatchTimer = Timer.builder("stocksentry.alert.dispatch")
+                .description("Topic publish, recipient resolution and hand-off to delivery for one alert")
+                .register(meterRegistry);
+        alertsTriggered = Counter.builder("stocksentry.alerts.triggered")
+                .description("Alerts raised by news evaluation")
+                .register(meterRegistry);
+    }
+
+    // Cached read used by the API and the scheduler; failed loads are not cached
+    public Mono<NewsResponse> getNews(String symbol) {
+        String key = normalizeSymbol(symbol);
+        return Mono.fromFuture(() -> newsCache.get(key, (k, executor) -> fetchNewsForStockAsync(k).toFuture()), true);
+    }
 
     public NewsResponse fetchNewsForStock(String symbol) {
-        String url = "https://newsapi.org/v2/everything?q=" + symbol + "&apiKey=" + apiKey;
-        return restTemplate.getForObject(url, NewsResponse.class);
+        return fetchNewsForStockAsync(symbol).block();
+    }
+
+    public Mono<NewsResponse> fetchNewsForStockAsync(String symbol) {
+        return newsApiWebClient.get()
+                .uri(uri -> uri.path("/v2/everything")
+                        .queryParam("q", "{q}")
+                        .queryParam("apiKey", "{apiKey}")
+                        .build(symbol, apiKey))
+                .retrieve()
+                .bodyToMono(NewsResponse.class);
+    }
+
+    /**
+     * Fetch used by the polling paths: only articles published since the symbol's watermark
+     * (minus a small overlap), newest first, a small page at a time. Pages are followed until a
+     * short page comes back. A burst that outlasts the page limit is marked truncated and the
+     * following polls page down through the rest of it, below the oldest article read so far.
+     * Evaluate the result with evaluatePolledNews so the watermark moves forward.
+     */
+    public Mono<NewsResponse> fetchNewsSinceWatermarkAsync(String symbol) {
+        if (!incrementalEnabled) {
+            return getNews(symbol);
+        }
+        String key = normalizeSymbol(symbol);
+        // The first lookup per symbol may read NewsWatermarks
+        return Mono.fromCallable(() -> Optional.ofNullable(watermarkStore.get(key)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(watermark -> {
+                    Instant from = watermark
+                            .map(w -> w.minus(incrementalOverlapMinutes, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.SECONDS))
+                            .orElse(null);
+                    Instant to = Optional.ofNullable(watermarkStore.backlogBefore(key))
+                            .map(before -> before.truncatedTo(ChronoUnit.SECONDS))
+                            .orElse(null);
+                    int pageSize = Math.max(1, incrementalPageSize);
+                    int maxPages = Math.max(1, incrementalMaxPages);
+                    return Flux.range(1, maxPages)
+                            .concatMap(page -> fetchNewsPageAsync(key, from, to, page, pageSize))
+                            .takeUntil(response -> isShortPage(response, pageSize))
+                            .collectList()
+                            .map(pages -> {
+                                NewsResponse merged = mergePages(pages);
+                                merged.setTruncated(pages.size() == maxPages && !pages.isEmpty() && !isShortPage(pages.get(pages.size() - 1), pageSize));
+                                return merged;
+                            });
+                });
+    }
+
+    // Evaluates a response from fetchNewsSinceWatermarkAsync, then records how far the symbol was read
+    public int evaluatePolledNews(String symbol, NewsResponse response) {
+        Evaluation evaluation = evaluate(symbol, response);
+        // An alert that is still to be retried keeps the watermark where it was, so it is fetched again
+        if (incrementalEnabled && response != null && evaluation.delivered()) {
+            downstreamLimiter.run(Downstream.DYNAMODB,
+                    () -> watermarkStore.advance(normalizeSymbol(symbol), response.getArticles(), response.isTruncated()));
+        }
+        return evaluation.fresh();
+    }
+
+    private static boolean isShortPage(NewsResponse response, int pageSize) {
+        return response.getArticles() == null || response.getArticles().size() < pageSize;
+    }
+
+    private Mono<NewsResponse> fetchNewsPageAsync(String symbol, Instant from, Instant to, int page, int pageSize) {
+        WebClient.ResponseSpec spec = newsApiWebClient.get()
+                .uri(uri -> {
+                    uri.path("/v2/everything")
+                            .queryParam("q", "{q}")
+                            .queryParam("sortBy", "publishedAt")
+                            .queryParam("pageSize", pageSize)
+                            .queryParam("page", page)
+                            .queryParam("apiKey", "{apiKey}");
+                    if (from != null) {
+                        uri.queryParam("from", from.toString());
+                    }
+                    if (to != null) {
+                        uri.queryParam("to", to.toString());
+                    }
+                    return uri.build(symbol, apiKey);
+                })
+                .retrieve();
+        if (!streamingEnabled) {
+            return spec.bodyToMono(NewsResponse.class);
+        }
+        Predicate<NewsResponse.Article> stopWhen = stopOnFirstMatch && !seenArticleStore.isEnabled()
+                ? article -> keywordMatcher.match(article) != 0
+                : null;
+        return NewsResponseStreamParser.parse(spec.bodyToFlux(DataBuffer.class), stopWhen);
+    }
+
+    private static NewsResponse mergePages(List<NewsResponse> pages) {
+        NewsResponse merged = new NewsResponse();
+        List<NewsResponse.Article> articles = new ArrayList<>();
+        for (NewsResponse page : pages) {
+            if (merged.getStatus() == null) {
+                merged.setStatus(page.getStatus());
+                merged.setTotalResults(page.getTotalResults());
+            }
+            if (page.getArticles() != null) {
+                articles.addAll(page.getArticles());
+            }
+        }
+        merged.setArticles(articles);
+        return merged;
     }
 
     public boolean shouldTriggerAlert(NewsResponse response) {
         if (response != null && response.getArticles() != null) {
             for (NewsResponse.Article article : response.getArticles()) {
-                String text = (article.getTitle() + " " + article.getDescription()).toLowerCase();
-                if (text.contains("earnings") || text.contains("acquisition") || text.contains("merger")) {
+                if (keywordMatcher.match(article) != 0) {
                     return true;
                 }
             }
@@ -47,53 +249,123 @@ public class NewsService {
         return false;
     }
 
-    public void checkAndNotifyAlerts(String symbol) {
-        NewsResponse response = fetchNewsForStock(symbol);
-        if (shouldTriggerAlert(response)) {
-            String message = "News alert for " + symbol + ": Significant event detected";
-            
-            // Send to SNS topic (existing functionality)
-            notificationService.sendAlert(symbol, message);
-            
-            // Send personalized email alerts to users who have this stock in their watchlist
-            sendPersonalizedAlerts(symbol, message);
-            
-            alertLogRepository.logAlert(symbol, message);
+    // Event types (e.g. EARNINGS, MERGER) found across all articles of the response
+    public Set<String> detectEventTypes(NewsResponse response) {
+        if (response == null) {
+            return Set.of();
         }
+        return keywordMatcher.eventTypes(keywordMatcher.match(response.getArticles()));
     }
 
-    private void sendPersonalizedAlerts(String symbol, String message) {
-        // Get all users
-        List<String> userIds = userService.getAllUserIds();
-        
-        for (String userId : userIds) {
-            try {
-                // Get user details
-                var user = userService.getUser(userId);
-                
-                // Get user's watchlists
-                var watchlists = watchlistService.getWatchlists(userId);
-                
-                // Check if user has this symbol in any of their watchlists
-                boolean hasSymbol = watchlists.stream()
-                        .anyMatch(watchlist -> watchlist.getSymbols().contains(symbol));
-                
-                // If user has this symbol, send notifications
-                if (hasSymbol) {
-                    // Send email alert if email is available
-                    if (user.getEmail() != null && !user.getEmail().isEmpty()) {
-                        notificationService.sendEmailAlert(user.getEmail(), symbol, message);
-                    }
-                    
-                    // Send SMS alert if phone number is available
-                    if (user.getPhoneNumber() != null && !user.getPhoneNumber().isEmpty()) {
-                        notificationService.sendSmsAlert(user.getPhoneNumber(), symbol, message);
+    // One NewsAPI request for the whole batch; articles are routed back to the symbols they mention
+    public Mono<Map<String, NewsResponse>> fetchNewsForSymbolsAsync(List<String> symbols) {
+        String query = NewsQueryBatcher.buildQuery(symbols);
+        return newsApiWebClient.get()
+                .uri(uri -> uri.path("/v2/everything")
+                        .queryParam("q", "{q}")
+                        .queryParam("pageSize", 100)
+                        .queryParam("apiKey", "{apiKey}")
+                        .build(query, apiKey))
+                .retrieve()
+                .bodyToMono(NewsResponse.class)
+                .map(response -> NewsQueryBatcher.demultiplex(symbols, response));
+    }
+
+    // Returns the number of symbols whose evaluation failed
+    public Mono<Integer> checkAndNotifyAlertsBatchAsync(List<String> symbols) {
+        return fetchNewsForSymbolsAsync(symbols)
+                .publishOn(Schedulers.boundedElastic())
+                .map(responses -> {
+                    int failed = 0;
+                    for (String symbol : symbols) {
+                        try {
+                            evaluateAndNotify(symbol, responses.get(symbol));
+                        } catch (Exception e) {
+                            failed++;
+                            System.err.println("Error checking alerts for symbol " + symbol + ": " + e.getMessage());
+                        }
                     }
-                }
-            } catch (Exception e) {
-                // Log error but continue with other users
-                System.err.println("Error sending alert to user " + userId + ": " + e.getMessage());
+                    return failed;
+                });
+    }
+
+    public void checkAndNotifyAlerts(String symbol) {
+        evaluateAndNotify(symbol, getNews(symbol).block());
+    }
+
+    // Non-blocking incremental fetch; alert evaluation and delivery (blocking AWS calls) run on boundedElastic
+    public Mono<Void> checkAndNotifyAlertsAsync(String symbol) {
+        return fetchNewsSinceWatermarkAsync(symbol)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(response -> evaluatePolledNews(symbol, response))
+                .then();
+    }
+
+    // Returns the number of articles not evaluated before, i.e. the symbol's new news since the last poll
+    public int evaluateAndNotify(String symbol, NewsResponse response) {
+        return evaluate(symbol, response).fresh();
+    }
+
+    private Evaluation evaluate(String symbol, NewsResponse response) {
+        if (response == null || response.getArticles() == null) {
+            return new Evaluation(0, true);
+        }
+
+        Timer.Sample evaluation = Timer.start(meterRegistry);
+        // Only articles not evaluated in an earlier cycle can raise a new alert
+        // DynamoDB permits are taken per call, so the SNS publish and delivery hand-off below do not hold one
+        List<NewsResponse.Article> unseen = downstreamLimiter.call(Downstream.DYNAMODB,
+                () -> seenArticleStore.filterUnseen(symbol, response.getArticles()));
+        if (unseen.isEmpty()) {
+            evaluation.stop(evaluationTimer);
+            return new Evaluation(0, true);
+        }
+        NewsResponse fresh = new NewsResponse();
+        fresh.setStatus(response.getStatus());
+        fresh.setTotalResults(unseen.size());
+        fresh.setArticles(unseen);
+
+        Set<String> eventTypes = detectEventTypes(fresh);
+        evaluation.stop(evaluationTimer);
+
+        if (!eventTypes.isEmpty()) {
+            alertsTriggered.increment();
+            String message = "News alert for " + symbol + ": Significant event detected (" + String.join(", ", eventTypes) + ")";
+
+            int rejected = dispatchTimer.record(() -> {
+                // Send to SNS topic (existing functionality)
+                notificationService.sendAlert(symbol, message);
+
+                // Send personalized email alerts to users who have this stock in their watchlist
+                int dropped = sendPersonalizedAlerts(symbol, message);
+
+                alertLogRepository.logAlert(symbol, message);
+                return dropped;
+            });
+            if (rejected > 0) {
+                // Left unseen so the next cycle raises the alert again rather than losing those recipients
+                System.err.println("Alert for " + symbol + " not fully queued for delivery; will retry next cycle");
+                return new Evaluation(unseen.size(), false);
             }
         }
+        // Marked only once delivery accepted every chunk
+        downstreamLimiter.run(Downstream.DYNAMODB, () -> seenArticleStore.markSeen(symbol, unseen));
+        return new Evaluation(unseen.size(), true);
+    }
+
+    // Returns the number of delivery chunks that could not be queued
+    private int sendPersonalizedAlerts(String symbol, String message) {
+        List<User> recipients = downstreamLimiter.call(Downstream.DYNAMODB, () -> recipientResolver.resolve(symbol));
+
+        // Emails and SMS are grouped and sent by the delivery workers
+        return alertDeliveryService.deliver(symbol, message, recipients);
+    }
+
+    // fresh: articles not evaluated before; delivered: false when some recipients' chunks were dropped
+    private record Evaluation(int fresh, boolean delivered) {
+    }
+
+    static String normalizeSymbol(String symbol) {
+        return SymbolSubscriptionIndex.normalizeSymbol(symbol);
     }
 }
@@ -0,0 +1,125 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+import com.example.stocksentry.repository.NewsWatermarkRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-symbol high-water mark of Article.publishedAt, so polls only ask NewsAPI for newer
+ * articles. Held in memory (one entry per subscribed symbol) and persisted to NewsWatermarks so
+ * a restart resumes where it left off instead of re-fetching everything.
+ */
+@Component
+public class NewsWatermarkStore {
+
+    // Marks symbols whose table lookup found nothing, so they are not looked up again
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final NewsWatermarkRepository watermarkRepository;
+    private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+
+    // Not persisted: after a restart the watermark has not moved, so the burst is read again from the top
+    private final Map<String, Backlog> backlogs = new ConcurrentHashMap<>();
+
+    public NewsWatermarkStore(NewsWatermarkRepository watermarkRepository) {
+        this.watermarkRepository = watermarkRepository;
+    }
+
+    // Newest publishedAt already evaluated, or null before the first poll
+    public Instant get(String symbol) {
+        long watermark = current(symbol);
+        return watermark == NONE ? null : Instant.ofEpochMilli(watermark);
+    }
+
+    // Lower bound of the articles still unread below a truncated poll, or null when there are none
+    public Instant backlogBefore(String symbol) {
+        Backlog backlog = backlogs.get(symbol);
+        return backlog == null ? null : Instant.ofEpochMilli(backlog.before());
+    }
+
+    /**
+     * Records an evaluated poll. A complete poll moves the watermark to its newest article. A
+     * truncated one (newest first, page limit reached) leaves the watermark where it is and
+     * remembers its oldest article, so the next polls page down through the rest of the burst;
+     * the watermark jumps forward once that backlog has been read to the end.
+     */
+    public void advance(String symbol, List<NewsResponse.Article> articles, boolean truncated) {
+        long newest = NONE;
+        long oldest = Long.MAX_VALUE;
+        if (articles != null) {
+            for (NewsResponse.Article article : articles) {
+                Instant publishedAt = parse(article.getPublishedAt());
+                if (publishedAt != null) {
+                    newest = Math.max(newest, publishedAt.toEpochMilli());
+                    oldest = Math.min(oldest, publishedAt.toEpochMilli());
+                }
+            }
+        }
+
+        Backlog backlog = backlogs.get(symbol);
+        // Stop draining if the backlog did not move, e.g. a page full of identical timestamps
+        if (truncated && newest != NONE && (backlog == null || oldest < backlog.before())) {
+            backlogs.put(symbol, new Backlog(oldest, Math.max(newest, backlog == null ? NONE : backlog.newest())));
+            return;
+        }
+        if (backlog != null) {
+            backlogs.remove(symbol);
+            newest = Math.max(newest, backlog.newest());
+        }
+
+        // Never past the present, in case a feed reports a future timestamp
+        newest = Math.min(newest, System.currentTimeMillis());
+        if (newest == NONE || newest <= current(symbol)) {
+            return;
+        }
+
+        watermarks.merge(symbol, newest, Math::max);
+        try {
+            watermarkRepository.saveWatermark(symbol, newest);
+        } catch (Exception e) {
+            // Still held in memory; at worst a restart re-fetches a little and the seen store filters it
+            System.err.println("Error saving news watermark for " + symbol + ": " + e.getMessage());
+        }
+    }
+
+    // Forgets the matching symbols so their next use reads the table again, e.g. after a shard moved away
+    public void evict(Predicate<String> symbols) {
+        watermarks.keySet().removeIf(symbols);
+        backlogs.keySet().removeIf(symbols);
+    }
+
+    // A failed lookup is not cached, so the next poll tries the table again
+    private long current(String symbol) {
+        try {
+            return watermarks.computeIfAbsent(symbol, key -> {
+                Long watermark = watermarkRepository.loadWatermark(key);
+                return watermark == null ? NONE : watermark;
+            });
+        } catch (Exception e) {
+            System.err.println("Error loading news watermark for " + symbol + ": " + e.getMessage());
+            return NONE;
+        }
+    }
+
+    static Instant parse(String publishedAt) {
+        if (publishedAt == null || publishedAt.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(publishedAt);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // before: oldest article read so far; newest: where the watermark goes once the backlog is read
+    private record Backlog(long before, long newest) {
+    }
+}
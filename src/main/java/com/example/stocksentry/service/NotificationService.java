@@ -1,17 +1,33 @@
 package com.example.stocksentry.service;
 
+import com.example.stocksentry.exception.StockSentryException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
 import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class NotificationService {
 
+    // SES SendBulkTemplatedEmail accepts at most 50 destinations per call
+    public static final int MAX_BULK_DESTINATIONS = 50;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final SnsClient snsClient;
+    private final SnsAsyncClient snsAsyncClient;
     private final SesClient sesClient;
+    private final DownstreamLimiter downstreamLimiter;
 
     @Value("${aws.sns.topic-arn}")
     private String topicArn;
@@ -19,9 +35,17 @@ public class NotificationService {
     @Value("${aws.ses.from-email}")
     private String fromEmail;
 
-    public NotificationService(SnsClient snsClient, SesClient sesClient) {
+    @Value("${aws.ses.alert-template:StockSentryAlert}")
+    private String alertTemplate;
+
+    private volatile boolean alertTemplateReady;
+
+    public NotificationService(SnsClient snsClient, SnsAsyncClient snsAsyncClient, SesClient sesClient,
+                               DownstreamLimiter downstreamLimiter) {
         this.snsClient = snsClient;
+        this.snsAsyncClient = snsAsyncClient;
         this.sesClient = sesClient;
+        this.downstreamLimiter = downstreamLimiter;
     }
 
     public void sendAlert(String symbol, String message) {
@@ -31,7 +55,7 @@ public class NotificationService {
                 .message("Alert for " + symbol + ": " + message)
                 .subject("StockSentry Alert")
                 .build();
-        snsClient.publish(snsRequest);
+        downstreamLimiter.run(DownstreamLimiter.Downstream.SNS, () -> snsClient.publish(snsRequest));
     }
 
     public void sendEmailAlert(String userEmail, String symbol, String message) {
@@ -46,7 +70,7 @@ public class NotificationService {
                 .source(fromEmail)
                 .build();
 
-        sesClient.sendEmail(sesRequest);
+        downstreamLimiter.run(DownstreamLimiter.Downstream.SES, () -> sesClient.sendEmail(sesRequest));
     }
 
     public void sendSmsAlert(String phoneNumber, String symbol, String message) {
@@ -54,6 +78,91 @@ public class NotificationService {
                 .phoneNumber(phoneNumber)
                 .message("StockSentry Alert: " + symbol + " - " + message)
                 .build();
-        snsClient.publish(smsRequest);
+        downstreamLimiter.run(DownstreamLimiter.Downstream.SNS, () -> snsClient.publish(smsRequest));
+    }
+
+    // Non-blocking SMS publish; completes exceptionally if SNS rejects the message. The SNS permit
+    // is taken before the publish and released when it completes
+    public CompletableFuture<Void> sendSmsAlertAsync(String phoneNumber, String symbol, String message) {
+        PublishRequest smsRequest = PublishRequest.builder()
+                .phoneNumber(phoneNumber)
+                .message("StockSentry Alert: " + symbol + " - " + message)
+                .build();
+        downstreamLimiter.acquire(DownstreamLimiter.Downstream.SNS);
+        CompletableFuture<PublishResponse> publish;
+        try {
+            publish = snsAsyncClient.publish(smsRequest);
+        } catch (RuntimeException e) {
+            downstreamLimiter.release(DownstreamLimiter.Downstream.SNS);
+            throw e;
+        }
+        return publish
+                .whenComplete((response, e) -> downstreamLimiter.release(DownstreamLimiter.Downstream.SNS))
+                .thenApply(response -> null);
+    }
+
+    // Sends one templated email per recipient in a single SES call; returns the number of failed destinations
+    public int sendBulkEmailAlert(List<String> userEmails, String symbol, String message) {
+        if (userEmails.size() > MAX_BULK_DESTINATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DESTINATIONS + " destinations per bulk email");
+        }
+        ensureAlertTemplate();
+
+        String templateData;
+        try {
+            templateData = OBJECT_MAPPER.writeValueAsString(Map.of("symbol", symbol, "message", message));
+        } catch (JsonProcessingException e) {
+            throw new StockSentryException("Error building alert template data", e);
+        }
+
+        SendBulkTemplatedEmailRequest request = SendBulkTemplatedEmailRequest.builder()
+                .source(fromEmail)
+                .template(alertTemplate)
+                .defaultTemplateData(templateData)
+                .destinations(userEmails.stream()
+                        .map(email -> BulkEmailDestination.builder()
+                                .destination(Destination.builder().toAddresses(email).build())
+                                .build())
+                        .toList())
+                .build();
+
+        SendBulkTemplatedEmailResponse response = downstreamLimiter.call(DownstreamLimiter.Downstream.SES,
+                () -> sesClient.sendBulkTemplatedEmail(request));
+        int failed = 0;
+        for (BulkEmailDestinationStatus status : response.status()) {
+            if (status.status() != BulkEmailStatus.SUCCESS) {
+                failed++;
+                System.err.println("Bulk alert email for " + symbol + " failed: " + status.statusAsString() + " " + status.error());
+            }
+        }
+        return failed;
+    }
+
+    // Creates the SES template used for bulk alerts if it does not exist yet
+    private void ensureAlertTemplate() {
+        if (alertTemplateReady) {
+            return;
+        }
+        synchronized (this) {
+            if (alertTemplateReady) {
+                return;
+            }
+            try {
+                sesClient.getTemplate(GetTemplateRequest.builder().templateName(alertTemplate).build());
+            } catch (TemplateDoesNotExistException e) {
+                try {
+                    sesClient.createTemplate(CreateTemplateRequest.builder()
+                            .template(Template.builder()
+                                    .templateName(alertTemplate)
+                                    .subjectPart("StockSentry Alert: {{symbol}}")
+                                    .textPart("Alert for {{symbol}}: {{message}}")
+                                    .build())
+                            .build());
+                } catch (AlreadyExistsException ignored) {
+                    // Created concurrently by another instance
+                }
+            }
+            alertTemplateReady = true;
+        }
     }
 }
@@ -5,11 +5,14 @@ import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
-import java.util.Random;
+import java.security.SecureRandom;
 
 @Service
 public class OtpService {
 
+    // Thread-safe; one instance instead of a new generator per OTP
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final SesClient sesClient;
 
     @Value("${aws.ses.from-email}")
@@ -20,8 +23,7 @@ public class OtpService {
     }
 
     public String generateOtp() {
-        Random random = new Random();
-        return String.format("%06d", random.nextInt(1000000));  // 6-digit OTP
+        return String.format("%06d", RANDOM.nextInt(1000000));  // 6-digit OTP
     }
 
     public void sendOtp(String recipientEmail, String otp) {
@@ -0,0 +1,65 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.User;
+import com.example.stocksentry.repository.SymbolSubscriptionIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the users to notify for a symbol: the subscription index when it is built, otherwise the
+ * original walk over every user and their watchlists.
+ */
+@Component
+public class RecipientResolver {
+
+    private final UserService userService;
+    private final WatchlistService watchlistService;
+    private final SymbolSubscriptionIndex subscriptionIndex;
+
+    public RecipientResolver(UserService userService, WatchlistService watchlistService,
+                             SymbolSubscriptionIndex subscriptionIndex) {
+        this.userService = userService;
+        this.watchlistService = watchlistService;
+        this.subscriptionIndex = subscriptionIndex;
+    }
+
+    public List<User> resolve(String symbol) {
+        if (subscriptionIndex.isReady()) {
+            // Single lookup of the users holding this symbol; cache misses are fetched concurrently
+            return userService.getUsers(subscriptionIndex.getSubscribers(symbol));
+        }
+        return resolveByWalk(symbol);
+    }
+
+    // Index not built yet: walk all users and their watchlists
+    public List<User> resolveByWalk(String symbol) {
+        String key = SymbolSubscriptionIndex.normalizeSymbol(symbol);
+        List<User> recipients = new ArrayList<>();
+        List<String> userIds = userService.getAllUserIds();
+
+        for (String userId : userIds) {
+            try {
+                // Get user details
+                var user = userService.getUser(userId);
+
+                // Get user's watchlists
+                var watchlists = watchlistService.getWatchlists(userId);
+
+                // Check if user has this symbol in any of their watchlists
+                boolean hasSymbol = watchlists.stream()
+                        .anyMatch(watchlist -> watchlist.getSymbols() != null && watchlist.getSymbols().stream()
+                                .anyMatch(held -> key.equals(SymbolSubscriptionIndex.normalizeSymbol(held))));
+
+                if (hasSymbol) {
+                    recipients.add(user);
+                }
+            } catch (Exception e) {
+                // Log error but continue with other users
+                System.err.println("Error sending alert to user " + userId + ": " + e.getMessage());
+            }
+        }
+        return recipients;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+import com.example.stocksentry.repository.SeenArticleRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Remembers which articles were already evaluated for a symbol so a story that stays in NewsAPI
+ * results only alerts once. Each symbol keeps a fixed-size ring of 64-bit URL hashes with the time
+ * they were seen; entries older than maxAge no longer count. Rings are cached in memory under a
+ * byte budget and persisted to the SeenArticles table so restarts do not re-alert. Rings are keyed
+ * by the normalized symbol, like the news cache and watermarks.
+ */
+@Component
+public class SeenArticleStore {
+
+    // urlHash + seenAt, both longs; epoch seconds overflow an int in 2038
+    private static final int ENTRY_BYTES = Long.BYTES + Long.BYTES;
+
+    private final SeenArticleRepository seenArticleRepository;
+
+    @Value("${alerts.seen-articles.enabled:true}")
+    private boolean enabled;
+
+    @Value("${alerts.seen-articles.per-symbol:256}")
+    private int perSymbol;
+
+    @Value("${alerts.seen-articles.max-age-hours:168}")
+    private long maxAgeHours;
+
+    @Value("${alerts.seen-articles.max-memory-mb:64}")
+    private long maxMemoryMb;
+
+    private final MeterRegistry meterRegistry;
+
+    private LoadingCache<String, Ring> rings;
+
+    public SeenArticleStore(SeenArticleRepository seenArticleRepository, MeterRegistry meterRegistry) {
+        this.seenArticleRepository = seenArticleRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        rings = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((String symbol, Ring ring) -> ring.capacity() * ENTRY_BYTES)
+                .recordStats()
+                .build(this::loadRing);
+        CaffeineCacheMetrics.monitor(meterRegistry, rings, "seenArticles");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<NewsResponse.Article> filterUnseen(String symbol, List<NewsResponse.Article> articles) {
+        if (!enabled || articles == null) {
+            return articles;
+        }
+        Ring ring = rings.get(NewsService.normalizeSymbol(symbol));
+        long now = Instant.now().getEpochSecond();
+        List<NewsResponse.Article> unseen = new ArrayList<>();
+        for (NewsResponse.Article article : articles) {
+            if (!ring.contains(hash(article), now, maxAgeSeconds())) {
+                unseen.add(article);
+            }
+        }
+        return unseen;
+    }
+
+    // Records the articles and persists the symbol's ring when anything new was added
+    public void markSeen(String symbol, List<NewsResponse.Article> articles) {
+        if (!enabled || articles == null || articles.isEmpty()) {
+            return;
+        }
+        String key = NewsService.normalizeSymbol(symbol);
+        Ring ring = rings.get(key);
+        long now = Instant.now().getEpochSecond();
+        boolean changed = false;
+        for (NewsResponse.Article article : articles) {
+            changed |= ring.add(hash(article), now, maxAgeSeconds());
+        }
+        if (changed) {
+            try {
+                seenArticleRepository.saveEntries(key, ring.toBytes(), now + maxAgeSeconds());
+            } catch (Exception e) {
+                // Still deduplicated in memory; only a restart would re-evaluate these articles
+                System.err.println("Error persisting seen articles for " + symbol + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Drops the matching rings from memory so their next use reloads them from the table
+    public void evict(Predicate<String> symbols) {
+        rings.asMap().keySet().removeIf(symbols);
+    }
+
+    private Ring loadRing(String symbol) {
+        Ring ring = new Ring(Math.max(1, perSymbol));
+        try {
+            byte[] entries = seenArticleRepository.loadEntries(symbol);
+            if (entries != null) {
+                ring.load(entries);
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading seen articles for " + symbol + ": " + e.getMessage());
+        }
+        return ring;
+    }
+
+    private long maxAgeSeconds() {
+        return maxAgeHours * 3600;
+    }
+
+    // 64-bit FNV-1a over the article URL (falls back to title + publish time when there is no URL)
+    static long hash(NewsResponse.Article article) {
+        String key = article.getUrl() != null ? article.getUrl() : article.getTitle() + "|" + article.getPublishedAt();
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static final class Ring {
+        private final long[] hashes;
+        private final long[] seenAt;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            hashes = new long[capacity];
+            seenAt = new long[capacity];
+        }
+
+        int capacity() {
+            return hashes.length;
+        }
+
+        synchronized boolean contains(long hash, long now, long maxAgeSeconds) {
+            for (int i = 0; i < size; i++) {
+                if (hashes[i] == hash && now - seenAt[i] <= maxAgeSeconds) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Overwrites the oldest slot; returns false if the hash was already present and fresh
+        synchronized boolean add(long hash, long now, long maxAgeSeconds) {
+            for (int i = 0; i < size; i++) {
+                if (hashes[i] == hash) {
+                    if (now - seenAt[i] <= maxAgeSeconds) {
+                        return false;
+                    }
+                    seenAt[i] = now;
+                    return true;
+                }
+            }
+            hashes[next] = hash;
+            seenAt[next] = now;
+            next = (next + 1) % hashes.length;
+            size = Math.min(size + 1, hashes.length);
+            return true;
+        }
+
+        synchronized byte[] toBytes() {
+            ByteBuffer buffer = ByteBuffer.allocate(size * ENTRY_BYTES);
+            // Oldest first, so load() restores the same eviction order
+            int start = size < hashes.length ? 0 : next;
+            for (int i = 0; i < size; i++) {
+                int slot = (start + i) % hashes.length;
+                buffer.putLong(hashes[slot]);
+                buffer.putLong(seenAt[slot]);
+            }
+            return buffer.array();
+        }
+
+        synchronized void load(byte[] entries) {
+            ByteBuffer buffer = ByteBuffer.wrap(entries);
+            while (buffer.remaining() >= ENTRY_BYTES) {
+                hashes[next] = buffer.getLong();
+                seenAt[next] = buffer.getLong();
+                next = (next + 1) % hashes.length;
+                size = Math.min(size + 1, hashes.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.repository.ScannerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the symbol space across running instances. Symbols hash into a fixed number of shards;
+ * each shard is assigned to one live node by rendezvous hashing, so a joining or leaving node
+ * only moves the shards it wins or loses. Ownership is enforced with conditional lease writes in
+ * ScannerLeases, renewed by a heartbeat on its own thread (the news scan can run longer than a
+ * lease). With clustering disabled every symbol belongs to this node.
+ */
+@Component
+public class ShardCoordinator {
+
+    private final ScannerLeaseRepository leaseRepository;
+    private final NewsWatermarkStore watermarkStore;
+    private final SeenArticleStore seenArticleStore;
+
+    @Value("${cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cluster.shards:64}")
+    private int shards;
+
+    @Value("${cluster.lease-duration-ms:30000}")
+    private long leaseDurationMs;
+
+    @Value("${cluster.heartbeat-interval-ms:10000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${cluster.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+    private ScheduledExecutorService heartbeatExecutor;
+    private volatile Set<Integer> ownedShards = Set.of();
+    private volatile List<String> liveNodes = List.of();
+    // Owned shards are only trusted while the leases written by the last heartbeat are valid
+    private volatile long ownershipValidUntil;
+
+    public ShardCoordinator(ScannerLeaseRepository leaseRepository, NewsWatermarkStore watermarkStore,
+                            SeenArticleStore seenArticleStore) {
+        this.leaseRepository = leaseRepository;
+        this.watermarkStore = watermarkStore;
+        this.seenArticleStore = seenArticleStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        nodeId = configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shard-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeatSafely, 0, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("Cluster scanning enabled as node " + nodeId + " over " + shards + " shards");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (heartbeatExecutor == null) {
+            return;
+        }
+        heartbeatExecutor.shutdown();
+        heartbeatExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        // Hand shards back right away instead of making the others wait out the lease
+        try {
+            for (int shard : ownedShards) {
+                leaseRepository.releaseShard(shard, nodeId);
+            }
+            leaseRepository.removeNode(nodeId);
+        } catch (Exception e) {
+            System.err.println("Error releasing shard leases for node " + nodeId + ": " + e.getMessage());
+        }
+        ownedShards = Set.of();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // True when this node should fetch and alert on the symbol in the current cycle
+    public boolean owns(String symbol) {
+        if (!enabled) {
+            return true;
+        }
+        if (System.currentTimeMillis() >= ownershipValidUntil) {
+            return false;
+        }
+        return ownedShards.contains(shardOf(NewsService.normalizeSymbol(symbol), shards));
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("nodeId", nodeId);
+        status.put("shards", shards);
+        status.put("liveNodes", liveNodes);
+        status.put("ownedShards", new TreeSet<>(ownedShards));
+        status.put("ownershipValidUntil", ownershipValidUntil);
+        return status;
+    }
+
+    private void heartbeatSafely() {
+        try {
+            heartbeat();
+        } catch (Exception e) {
+            System.err.println("Error renewing shard leases for node " + nodeId + ": " + e.getMessage());
+        }
+    }
+
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + leaseDurationMs;
+        leaseRepository.heartbeat(nodeId, expiresAt);
+
+        List<String> nodes = new ArrayList<>(leaseRepository.findLiveNodes(now));
+        if (!nodes.contains(nodeId)) {
+            nodes.add(nodeId);
+        }
+        Collections.sort(nodes);
+        liveNodes = List.copyOf(nodes);
+
+        Set<Integer> owned = new HashSet<>();
+        for (int shard = 0; shard < shards; shard++) {
+            boolean assigned = nodeId.equals(ownerOf(shard, nodes));
+            if (assigned) {
+                if (leaseRepository.tryAcquireShard(shard, nodeId, now, expiresAt)) {
+                    owned.add(shard);
+                }
+            } else if (ownedShards.contains(shard)) {
+                leaseRepository.releaseShard(shard, nodeId);
+            }
+        }
+        // Every shard held before counts as lost if ownership lapsed in between; another node may have scanned it
+        Set<Integer> lost = new HashSet<>(ownedShards);
+        if (now < ownershipValidUntil) {
+            lost.removeAll(owned);
+        }
+        ownedShards = Set.copyOf(owned);
+        // Leave a margin so a slow cycle stops claiming shards before the lease can be taken over
+        ownershipValidUntil = expiresAt - Math.min(leaseDurationMs / 3, heartbeatIntervalMs);
+
+        if (!lost.isEmpty()) {
+            // The new owner moves these symbols' watermarks and seen rings on; reload them if the shards come back
+            watermarkStore.evict(symbol -> lost.contains(shardOf(symbol, shards)));
+            seenArticleStore.evict(symbol -> lost.contains(shardOf(symbol, shards)));
+        }
+    }
+
+    static int shardOf(String symbol, int shards) {
+        return (int) Math.floorMod(hash(symbol), (long) shards);
+    }
+
+    // Rendezvous (highest random weight) hashing: the node with the largest hash for the shard wins
+    static String ownerOf(int shard, List<String> nodes) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String node : nodes) {
+            long weight = hash(node + "#" + shard);
+            if (owner == null || weight > best || (weight == best && node.compareTo(owner) < 0)) {
+                owner = node;
+                best = weight;
+            }
+        }
+        return owner;
+    }
+
+    // 64-bit FNV-1a with a final mix, stable across JVMs (unlike String.hashCode spreading)
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
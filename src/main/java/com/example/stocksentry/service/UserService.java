@@ -6,51 +6,152 @@ package com.example.stocksentry.service;
 import com.example.stocksentry.dto.User;
 import com.example.stocksentry.exception.StockSentryException;
 import com.example.stocksentry.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    // Read-through cache of user profiles, bounded by an estimate of retained bytes
+    private final Cache<String, User> userCache;
+
+    public UserService(UserRepository userRepository,
+                       @Value("${users.cache.max-memory-mb:32}") long maxMemoryMb,
+                       @Value("${users.cache.ttl-seconds:600}") long ttlSeconds,
+                       MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.userCache = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((String userId, User user) -> estimateBytes(user))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "users");
+        // The cache is bounded by this estimate rather than by entry count
+        Gauge.builder("stocksentry.users.cache.estimated.bytes", userCache, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .description("Estimated bytes retained by the user profile cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
     public String createUser(String name, String email, String phoneNumber) {
-        return userRepository.createUser(name, email, phoneNumber);
+        String userId = userRepository.createUser(name, email, phoneNumber);
+
+        // Write-through so the first alert for a new user is served from memory
+        User user = new User();
+        user.setUserId(userId);
+        user.setName(name);
+        user.setEmail(email);
+        user.setPhoneNumber(phoneNumber);
+        userCache.put(userId, user);
+        return userId;
     }
 
     public User getUser(String userId) {
+        return userCache.get(userId, this::loadUser);
+    }
+
+    /**
+     * Resolves many users at once: cached profiles are returned directly and the misses are
+     * loaded with BatchGetItem, 100 per request with a bounded number in flight. Missing or
+     * still-unprocessed lookups are skipped, so the result may be shorter than the input.
+     */
+    public List<User> getUsers(Collection<String> userIds) {
+        Map<String, User> found = new LinkedHashMap<>(userCache.getAllPresent(userIds));
+        List<String> missing = new ArrayList<>();
+        for (String userId : userIds) {
+            if (!found.containsKey(userId)) {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                userRepository.batchGetUsers(missing).forEach((userId, item) -> {
+                    User user = toUser(item);
+                    userCache.put(userId, user);
+                    found.put(userId, user);
+                });
+            } catch (Exception e) {
+                System.err.println("Error loading " + missing.size() + " users: " + e.getMessage());
+            }
+        }
+
+        List<User> users = new ArrayList<>(found.size());
+        for (String userId : userIds) {
+            User user = found.remove(userId);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    // Drops a cached profile, e.g. after the Users item was changed outside this service
+    public void invalidateUser(String userId) {
+        userCache.invalidate(userId);
+    }
+
+    private User loadUser(String userId) {
         Map<String, AttributeValue> item = userRepository.getUserById(userId);
-        if (item == null) {
+        if (item == null || item.isEmpty()) {
             throw new StockSentryException("User not found for ID: " + userId);
         }
+        return toUser(item);
+    }
+
+    // Users item -> User; shared by the cached and batched load paths. Bulk-imported users may
+    // lack name, email or phoneNumber, which are then left null
+    public static User toUser(Map<String, AttributeValue> item) {
         User user = new User();
         user.setUserId(item.get("userId").s());
-        user.setName(item.get("name").s());
-        user.setEmail(item.get("email").s());
-        user.setPhoneNumber(item.get("phoneNumber").s());
+        user.setName(stringOf(item.get("name")));
+        user.setEmail(stringOf(item.get("email")));
+        user.setPhoneNumber(stringOf(item.get("phoneNumber")));
         return user;
     }
 
+    private static String stringOf(AttributeValue value) {
+        return value == null ? null : value.s();
+    }
 
-    public List<String> getAllUserIds() {
-        // Use ScanRequest to fetch all items from Users table
-        software.amazon.awssdk.services.dynamodb.model.ScanRequest scanRequest = software.amazon.awssdk.services.dynamodb.model.ScanRequest.builder()
-                .tableName("Users")
-                .build();
+    // Object headers plus UTF-16 payload of each string field
+    private static int estimateBytes(User user) {
+        return 32 + stringBytes(user.getUserId()) + stringBytes(user.getName())
+                + stringBytes(user.getEmail()) + stringBytes(user.getPhoneNumber());
+    }
 
-        List<Map<String, AttributeValue>> items = userRepository.dynamoDbClient.scan(scanRequest).items();
-        List<String> userIds = new ArrayList<>();
-        for (Map<String, AttributeValue> item : items) {
-            userIds.add(item.get("userId").s());
+    private static int stringBytes(String value) {
+        return value == null ? 0 : 40 + 2 * value.length();
+    }
+
+
+    public List<String> getAllUserIds() {
+        try (Stream<String> userIds = userRepository.streamAllUserIds()) {
+            return userIds.toList();
         }
-        return userIds;
+    }
+
+    // Lazy, paginated view of all user IDs; callers must close the stream
+    public Stream<String> streamAllUserIds() {
+        return userRepository.streamAllUserIds();
     }
 }
@@ -4,87 +4,165 @@ package com.example.stocksentry.service;
 import com.example.stocksentry.dto.Watchlist;
 import com.example.stocksentry.exception.StockSentryException;
 import com.example.stocksentry.repository.OtpRepository;
+import com.example.stocksentry.repository.SymbolSubscriptionIndex;
 import com.example.stocksentry.repository.WatchlistRepository;
 import com.example.stocksentry.service.OtpService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
 public class WatchlistService {
 
+    private static final int MAX_OTP_ATTEMPTS = 5;
+
     private final WatchlistRepository watchlistRepository;
     private final OtpService otpService;
     private final OtpRepository otpRepository;
 
-    public WatchlistService(WatchlistRepository watchlistRepository, OtpService otpService, OtpRepository otpRepository) {
+    // userId -> watchlists, stamped with the version current when the query started
+    private final Cache<String, CachedWatchlists> watchlistCache;
+    private final AtomicLong versions = new AtomicLong();
+    // Hits and misses are recorded by getWatchlists, so an invalidation marker counts as a miss
+    private final StatsCounter cacheStats = new ConcurrentStatsCounter();
+
+    public WatchlistService(WatchlistRepository watchlistRepository, OtpService otpService, OtpRepository otpRepository,
+                            @Value("${watchlists.cache.max-users:100000}") long maxUsers,
+                            @Value("${watchlists.cache.ttl-seconds:600}") long ttlSeconds,
+                            MeterRegistry meterRegistry) {
         this.watchlistRepository = watchlistRepository;
         this.otpService = otpService;
         this.otpRepository = otpRepository;
+        this.watchlistCache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats(() -> cacheStats)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, watchlistCache, "watchlists");
     }
 
     public void createWatchlist(String id, String userId, String name, List<String> symbols) {
         watchlistRepository.saveWatchlist(id, userId, name, symbols);
+        invalidate(userId);
     }
 
-    public void upsertWatchlist(Watchlist watchlist) {
-        watchlistRepository.upsertWatchlist(
+    // Returns the new version; pass the version from a previous read to reject the write if the watchlist changed since
+    public long upsertWatchlist(Watchlist watchlist) {
+        long version = watchlistRepository.upsertWatchlist(
                 watchlist.getId(),
                 watchlist.getUserId(),
                 watchlist.getName(),
-                watchlist.getSymbols()
+                watchlist.getSymbols(),
+                watchlist.getVersion()
         );
+        invalidate(watchlist.getUserId());
+        return version;
     }
 
     public List<Watchlist> getWatchlists(String userId) {
+        CachedWatchlists cached = watchlistCache.policy().getIfPresentQuietly(userId);
+        if (cached != null && cached.watchlists() != null) {
+            cacheStats.recordHits(1);
+            return cached.watchlists();
+        }
+        cacheStats.recordMisses(1);
+
+        // A write that lands after this point bumps the version, so this result cannot replace its marker
+        long readVersion = versions.get();
+        List<Watchlist> loaded = List.copyOf(loadWatchlists(userId));
+        watchlistCache.asMap().compute(userId, (key, current) ->
+                current != null && current.version() > readVersion ? current : new CachedWatchlists(readVersion, loaded));
+        return loaded;
+    }
+
+    private List<Watchlist> loadWatchlists(String userId) {
         return watchlistRepository.getWatchlistsByUser(userId).stream()
-                .map(item -> {
-                    Watchlist watchlist = new Watchlist();
-                    watchlist.setId(item.get("id").s());
-                    watchlist.setUserId(item.get("userId").s());
-                    watchlist.setName(item.get("name").s());
-                    watchlist.setSymbols(item.get("symbols").l().stream()
-                            .map(AttributeValue::s)
-                            .collect(Collectors.toList()));
-                    return watchlist;
-                })
+                .map(WatchlistService::toWatchlist)
                 .collect(Collectors.toList());
     }
 
-    public Watchlist getWatchlistById(String userId, String watchlistId) {
-        Map<String, AttributeValue> item = watchlistRepository.getWatchlistById(userId, watchlistId);
-        if (item == null) {
-            throw new StockSentryException("Watchlist not found for ID: " + watchlistId);
-        }
+    // Watchlists item -> Watchlist
+    public static Watchlist toWatchlist(Map<String, AttributeValue> item) {
         Watchlist watchlist = new Watchlist();
         watchlist.setId(item.get("id").s());
         watchlist.setUserId(item.get("userId").s());
         watchlist.setName(item.get("name").s());
-        watchlist.setSymbols(item.get("symbols").l().stream()
-                .map(AttributeValue::s)
-                .collect(Collectors.toList()));
+        watchlist.setSymbols(new ArrayList<>(SymbolSubscriptionIndex.symbolsOf(item.get("symbols"))));
+        AttributeValue version = item.get("version");
+        watchlist.setVersion(version == null ? 0L : Long.parseLong(version.n()));
         return watchlist;
     }
 
+    public Watchlist getWatchlistById(String userId, String watchlistId) {
+        Map<String, AttributeValue> item = watchlistRepository.getWatchlistById(userId, watchlistId);
+        if (item == null) {
+            throw new StockSentryException("Watchlist not found for ID: " + watchlistId);
+        }
+        return toWatchlist(item);
+    }
+
     public String shareWatchlist(String watchlistId, String recipientEmail) {
-        String otp = otpService.generateOtp();
-        otpRepository.saveOtp(otp, watchlistId);
-        otpService.sendOtp(recipientEmail, otp);
-        return "stocksentry://share/" + otp;
+        Map<String, AttributeValue> watchlist = watchlistRepository.findWatchlist(null, watchlistId);
+        if (watchlist == null) {
+            throw new StockSentryException("Watchlist not found for ID: " + watchlistId);
+        }
+        // The OTP row keeps a snapshot of the watchlist; retry on the rare clash with a live OTP
+        for (int attempt = 0; attempt < MAX_OTP_ATTEMPTS; attempt++) {
+            String otp = otpService.generateOtp();
+            if (otpRepository.saveShare(otp, watchlist)) {
+                otpService.sendOtp(recipientEmail, otp);
+                return "stocksentry://share/" + otp;
+            }
+        }
+        throw new StockSentryException("Could not allocate a share OTP for watchlist " + watchlistId);
+    }
+
+    // Single use: consumes the OTP and gives userId their own copy of the shared watchlist
+    public Watchlist redeemShare(String otp, String userId) {
+        Map<String, AttributeValue> share = otpRepository.getShare(otp);
+        Map<String, AttributeValue> copy = share == null ? null : watchlistRepository.redeemShare(otp, share, userId);
+        if (copy == null) {
+            throw new StockSentryException("Invalid or expired OTP");
+        }
+        invalidate(userId);
+        return toWatchlist(copy);
+    }
+
+    // userId is optional; without it the owner is looked up through the id-index
+    public void deleteWatchlist(String userId, String watchlistId) {
+        invalidate(watchlistRepository.deleteWatchlistById(userId, watchlistId));
     }
 
-    public void deleteWatchlist(String watchlistId) {
-        watchlistRepository.deleteWatchlistById(watchlistId);
+    public void addSymbols(String userId, String watchlistId, List<String> symbols) {
+        invalidate(watchlistRepository.addSymbols(userId, watchlistId, symbols));
     }
 
-    public void addSymbols(String watchlistId, List<String> symbols) {
-        watchlistRepository.addSymbols(watchlistId, symbols);
+    public void removeSymbol(String userId, String watchlistId, String symbol) {
+        invalidate(watchlistRepository.removeSymbol(userId, watchlistId, symbol));
+    }
+
+    // Called after the write: replaces the entry with a newer-versioned marker that forces a reload
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        watchlistCache.put(userId, new CachedWatchlists(versions.incrementAndGet(), null));
     }
 
-    public void removeSymbol(String watchlistId, String symbol) {
-        watchlistRepository.removeSymbol(watchlistId, symbol);
+    // watchlists == null marks an invalidated entry
+    private record CachedWatchlists(long version, List<Watchlist> watchlists) {
     }
 }
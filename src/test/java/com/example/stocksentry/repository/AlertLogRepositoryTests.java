@@ -0,0 +1,119 @@
+package com.example.stocksentry.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlertLogRepositoryTests {
+
+    @TempDir
+    Path dir;
+
+    private final DynamoBatchWriter batchWriter = mock(DynamoBatchWriter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AlertLogRepository repository;
+    private Path spillFile;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = dir.resolve("alertlog-spill.ndjson");
+        repository = new AlertLogRepository(batchWriter, meterRegistry);
+        ReflectionTestUtils.setField(repository, "capacity", 2);
+        // Long enough that the scheduled flusher never runs; the tests flush by hand
+        ReflectionTestUtils.setField(repository, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(repository, "overflowPolicy", "SPILL");
+        ReflectionTestUtils.setField(repository, "spillFile", spillFile.toString());
+        ReflectionTestUtils.setField(repository, "replayMaxBackoffMs", 600_000L);
+        repository.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        repository.stop();
+    }
+
+    @Test
+    void overflowIsSpilledAndReplayedAfterACleanFlush() throws Exception {
+        when(batchWriter.putAll(eq("AlertLogs"), anyList())).thenReturn(List.of());
+
+        repository.logAlert("AAPL", "one");
+        repository.logAlert("AAPL", "two");
+        repository.logAlert("AAPL", "three");
+        assertEquals(1, Files.readAllLines(spillFile).size());
+
+        repository.flushSafely();
+
+        // The buffered batch, then the replayed spill
+        verify(batchWriter, times(2)).putAll(eq("AlertLogs"), anyList());
+        assertFalse(Files.exists(spillFile));
+        assertFalse(Files.exists(Path.of(spillFile + ".replay")));
+        assertEquals(3.0, records("written"));
+    }
+
+    @Test
+    void replayWaitsOutAFailingTableWithoutRecountingSpills() throws Exception {
+        when(batchWriter.putAll(eq("AlertLogs"), anyList())).thenThrow(new RuntimeException("throttled"));
+
+        repository.logAlert("AAPL", "one");
+        repository.flushSafely();
+        // The failed live batch is spilled; no replay right behind it
+        verify(batchWriter, times(1)).putAll(eq("AlertLogs"), anyList());
+        assertEquals(1, Files.readAllLines(spillFile).size());
+
+        repository.flushSafely();
+        // The replay fails too and puts the record back once
+        verify(batchWriter, times(2)).putAll(eq("AlertLogs"), anyList());
+        assertEquals(1, Files.readAllLines(spillFile).size());
+
+        repository.flushSafely();
+        // Backing off: no further attempt yet
+        verify(batchWriter, times(2)).putAll(eq("AlertLogs"), anyList());
+        assertEquals(1.0, records("spilled"));
+    }
+
+    @Test
+    void replayStopsAtTheFirstFailedBatchAndKeepsTheRest() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            lines.add("{\"id\":\"" + i + "\",\"symbol\":\"AAPL\",\"message\":\"m\",\"timestamp\":\"t\"}");
+        }
+        Files.write(spillFile, lines);
+        when(batchWriter.putAll(eq("AlertLogs"), anyList()))
+                .thenReturn(List.of())
+                .thenThrow(new RuntimeException("throttled"));
+
+        repository.flushSafely();
+
+        // Batch 1 (records 1-2) is written, batch 2 (3-4) fails, record 5 is never read
+        verify(batchWriter, times(2)).putAll(eq("AlertLogs"), anyList());
+        List<String> remaining = new ArrayList<>();
+        for (String line : Files.readAllLines(spillFile)) {
+            remaining.add(new ObjectMapper().readTree(line).get("id").asText());
+        }
+        assertEquals(List.of("3", "4", "5"), remaining.stream().sorted().toList());
+        assertEquals(0.0, records("spilled"));
+        assertFalse(Files.exists(Path.of(spillFile + ".replay")));
+    }
+
+    private double records(String outcome) {
+        return meterRegistry.get("stocksentry.alertlog.records").tag("outcome", outcome).counter().count();
+    }
+}
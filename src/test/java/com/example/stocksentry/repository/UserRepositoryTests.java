@@ -0,0 +1,108 @@
+package com.example.stocksentry.repository;
+
+import com.example.stocksentry.exception.StockSentryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserRepositoryTests {
+
+    private final DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+    private UserRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        if (repository != null) {
+            repository.shutdown();
+        }
+    }
+
+    @Test
+    void streamsEveryPageOfEverySegment() {
+        repository = repository(2);
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenAnswer(invocation -> {
+            ScanRequest request = invocation.getArgument(0);
+            String segment = "s" + request.segment();
+            if (request.exclusiveStartKey() == null || request.exclusiveStartKey().isEmpty()) {
+                return page(segment + "-1", segment + "-2");
+            }
+            return ScanResponse.builder().items(List.of(item(segment + "-3"))).build();
+        });
+
+        try (Stream<String> userIds = repository.streamAllUserIds()) {
+            assertEquals(List.of("s0-1", "s0-2", "s0-3", "s1-1", "s1-2", "s1-3"), userIds.sorted().toList());
+        }
+    }
+
+    @Test
+    void closingTheStreamStopsTheSegmentScans() throws InterruptedException {
+        repository = repository(2);
+        AtomicInteger scans = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        // Every segment has more pages than any caller will read
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenAnswer(invocation -> {
+            scans.incrementAndGet();
+            return page("u" + next.incrementAndGet(), "u" + next.incrementAndGet());
+        });
+
+        try (Stream<String> userIds = repository.streamAllUserIds()) {
+            assertEquals(3, userIds.limit(3).count());
+        }
+
+        // Workers blocked on the full hand-off queue are interrupted, so the count settles at once
+        Thread.sleep(200);
+        int settled = scans.get();
+        Thread.sleep(300);
+        assertEquals(settled, scans.get());
+    }
+
+    @Test
+    void aFailedSegmentFailsTheStream() {
+        repository = repository(2);
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenAnswer(invocation -> {
+            ScanRequest request = invocation.getArgument(0);
+            if (request.segment() == 1) {
+                throw DynamoDbException.builder().message("segment unavailable").build();
+            }
+            return ScanResponse.builder().items(List.of(item("u1"))).build();
+        });
+
+        try (Stream<String> userIds = repository.streamAllUserIds()) {
+            StockSentryException e = assertThrows(StockSentryException.class, userIds::toList);
+            assertTrue(e.getMessage().startsWith("Error scanning Users: segment unavailable"));
+        }
+    }
+
+    private UserRepository repository(int segments) {
+        return new UserRepository(dynamoDbClient, mock(DynamoDbAsyncClient.class), mock(DynamoBatchWriter.class),
+                segments, 2, 0);
+    }
+
+    private static ScanResponse page(String... userIds) {
+        return ScanResponse.builder()
+                .items(Stream.of(userIds).map(UserRepositoryTests::item).toList())
+                .lastEvaluatedKey(item(userIds[userIds.length - 1]))
+                .build();
+    }
+
+    private static Map<String, AttributeValue> item(String userId) {
+        return Map.of("userId", AttributeValue.builder().s(userId).build());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.stocksentry.repository;
+
+import com.example.stocksentry.exception.WatchlistConflictException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WatchlistRepositoryTests {
+
+    private final DynamoDbClient dynamoDbClient = mock(DynamoDbClient.class);
+    private final SymbolSubscriptionIndex subscriptionIndex = mock(SymbolSubscriptionIndex.class);
+    private final DynamoBatchWriter batchWriter = mock(DynamoBatchWriter.class);
+    private final WatchlistRepository repository = new WatchlistRepository(dynamoDbClient, subscriptionIndex, batchWriter);
+
+    @Test
+    void replaceAtTheExpectedVersionReturnsTheNextOne() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().attributes(stored("w1", "u1", "4", "AAPL", "MSFT")).build());
+
+        long version = repository.upsertWatchlist("w1", "u1", "Tech", List.of("AAPL", "MSFT"), 3L);
+
+        assertEquals(4, version);
+        UpdateItemRequest update = capturedUpdate();
+        assertEquals("version = :expected", update.conditionExpression());
+        assertEquals("3", update.expressionAttributeValues().get(":expected").n());
+    }
+
+    @Test
+    void replaceOfANeverVersionedWatchlistExpectsNoVersion() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().attributes(stored("w1", "u1", "1", "AAPL")).build());
+
+        assertEquals(1, repository.upsertWatchlist("w1", "u1", "Tech", List.of("AAPL"), 0L));
+        assertEquals("attribute_not_exists(version)", capturedUpdate().conditionExpression());
+    }
+
+    @Test
+    void replaceIndexesTheSymbolsOfTheStoredItem() {
+        // Symbols that differ from the request show which of the two gets indexed
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().attributes(stored("w1", "u1", "5", "AAPL", "TSLA")).build());
+
+        repository.saveWatchlist("w1", "u1", "Tech", List.of("AAPL"));
+
+        assertEquals(ReturnValue.ALL_NEW, capturedUpdate().returnValues());
+        verify(subscriptionIndex).put("w1", "u1", List.of("AAPL", "TSLA"));
+    }
+
+    @Test
+    void replaceOverANewerVersionIsAConflict() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().message("The conditional request failed").build());
+
+        assertThrows(WatchlistConflictException.class,
+                () -> repository.upsertWatchlist("w1", "u1", "Tech", List.of("AAPL"), 3L));
+        // Nothing was written, so nothing is indexed
+        verify(subscriptionIndex, never()).put(anyString(), anyString(), any());
+    }
+
+    @Test
+    void aShareOtpRedeemsOnlyOnce() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenReturn(TransactWriteItemsResponse.builder().build())
+                .thenThrow(cancelled("ConditionalCheckFailed", "None"));
+        Map<String, AttributeValue> share = share("w1", "AAPL", "MSFT");
+
+        Map<String, AttributeValue> copy = repository.redeemShare("123456", share, "u2");
+        assertEquals("u2", copy.get("userId").s());
+        assertEquals("1", copy.get("version").n());
+        assertEquals("w1", copy.get("sharedFrom").s());
+        assertEquals(List.of("AAPL", "MSFT"), copy.get("symbols").ss());
+
+        // The OTP delete already went through once, so its condition fails the second transaction
+        assertNull(repository.redeemShare("123456", share, "u3"));
+        verify(subscriptionIndex, times(1)).put(anyString(), anyString(), any());
+
+        ArgumentCaptor<TransactWriteItemsRequest> request = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDbClient, times(2)).transactWriteItems(request.capture());
+        Delete delete = request.getAllValues().get(0).transactItems().get(0).delete();
+        assertEquals("Otps", delete.tableName());
+        assertEquals("watchlistId = :source AND expiry > :now", delete.conditionExpression());
+    }
+
+    @Test
+    void aTransactionCancelledForAnotherReasonIsRethrown() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(cancelled("None", "TransactionConflict"));
+
+        assertThrows(TransactionCanceledException.class,
+                () -> repository.redeemShare("123456", share("w1", "AAPL"), "u2"));
+        verify(subscriptionIndex, never()).put(anyString(), anyString(), any());
+    }
+
+    @Test
+    void importOverAnExistingKeyCarriesTheVersionForward() {
+        when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(BatchGetItemResponse.builder()
+                .responses(Map.of("Watchlists", List.of(stored("w1", "u1", "7", "AAPL"))))
+                .build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().attributes(stored("w1", "u1", "8", "AAPL")).build());
+        when(batchWriter.putAll(eq("Watchlists"), anyList())).thenReturn(List.of());
+
+        List<Map<String, AttributeValue>> unwritten = repository.putAll(List.of(
+                WatchlistRepository.importItem("w1", "u1", "Tech", List.of("AAPL")),
+                WatchlistRepository.importItem("w2", "u1", "Energy", List.of("XOM"))));
+
+        assertTrue(unwritten.isEmpty());
+        UpdateItemRequest update = capturedUpdate();
+        assertEquals("w1", update.key().get("id").s());
+        assertTrue(update.updateExpression().contains("version = if_not_exists(version, :zero) + :one"));
+        assertNull(update.conditionExpression());
+        // Only the new key is written as is, at version 1
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Map<String, AttributeValue>>> created = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter).putAll(eq("Watchlists"), created.capture());
+        assertEquals(1, created.getValue().size());
+        assertEquals("w2", created.getValue().get(0).get("id").s());
+    }
+
+    @Test
+    void importedKeysThatCannotBeCheckedAreReplacedOneByOne() {
+        when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenThrow(DynamoDbException.builder().message("throttled").build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(UpdateItemResponse.builder().attributes(stored("w1", "u1", "1", "AAPL")).build())
+                .thenThrow(DynamoDbException.builder().message("throttled").build());
+        when(batchWriter.putAll(eq("Watchlists"), anyList())).thenReturn(List.of());
+
+        Map<String, AttributeValue> second = WatchlistRepository.importItem("w2", "u1", "Energy", List.of("XOM"));
+        List<Map<String, AttributeValue>> unwritten = repository.putAll(List.of(
+                WatchlistRepository.importItem("w1", "u1", "Tech", List.of("AAPL")), second));
+
+        verify(dynamoDbClient, times(2)).updateItem(any(UpdateItemRequest.class));
+        assertEquals(List.of(second), unwritten);
+    }
+
+    private UpdateItemRequest capturedUpdate() {
+        ArgumentCaptor<UpdateItemRequest> update = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(update.capture());
+        return update.getValue();
+    }
+
+    private static TransactionCanceledException cancelled(String... codes) {
+        CancellationReason[] reasons = new CancellationReason[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            reasons[i] = CancellationReason.builder().code(codes[i]).build();
+        }
+        return TransactionCanceledException.builder().message("Transaction cancelled").cancellationReasons(reasons).build();
+    }
+
+    private static Map<String, AttributeValue> share(String watchlistId, String... symbols) {
+        Map<String, AttributeValue> share = new HashMap<>();
+        share.put("otp", AttributeValue.builder().s("123456").build());
+        share.put("watchlistId", AttributeValue.builder().s(watchlistId).build());
+        share.put("name", AttributeValue.builder().s("Tech").build());
+        share.put("symbols", AttributeValue.builder().ss(symbols).build());
+        return share;
+    }
+
+    private static Map<String, AttributeValue> stored(String id, String userId, String version, String... symbols) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", AttributeValue.builder().s(id).build());
+        item.put("userId", AttributeValue.builder().s(userId).build());
+        item.put("name", AttributeValue.builder().s("Tech").build());
+        item.put("symbols", AttributeValue.builder().ss(symbols).build());
+        item.put("version", AttributeValue.builder().n(version).build());
+        return item;
+    }
+}
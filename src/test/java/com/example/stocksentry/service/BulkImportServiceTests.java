@@ -0,0 +1,121 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.ImportRecord;
+import com.example.stocksentry.dto.ImportSummary;
+import com.example.stocksentry.repository.UserRepository;
+import com.example.stocksentry.repository.WatchlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkImportServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final WatchlistRepository watchlistRepository = mock(WatchlistRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final WatchlistService watchlistService = mock(WatchlistService.class);
+    private BulkImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        DownstreamLimiter downstreamLimiter = new DownstreamLimiter(1, 1, 1, 1, new SimpleMeterRegistry());
+        importService = new BulkImportService(userRepository, watchlistRepository, userService, watchlistService,
+                downstreamLimiter);
+        ReflectionTestUtils.setField(importService, "maxConcurrency", 1);
+        ReflectionTestUtils.setField(importService, "maxReportedFailures", 100);
+        when(userRepository.putAll(anyList())).thenReturn(List.of());
+        when(watchlistRepository.putAll(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void laterRecordWithTheSameKeyWinsAndBothCountAsWritten() {
+        ImportSummary summary = importService.importRecords(Flux.just(
+                user("u1"),
+                watchlist("u1", "w1", "First"),
+                watchlist("u1", "w1", "Second"),
+                user("u1"))).block();
+
+        assertEquals(4, summary.getReceived());
+        assertEquals(2, summary.getUsers());
+        assertEquals(2, summary.getWatchlists());
+        assertEquals(0, summary.getFailed());
+
+        // One item per key reaches BatchWriteItem, which rejects duplicate keys in a request
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Map<String, AttributeValue>>> written = ArgumentCaptor.forClass(List.class);
+        verify(watchlistRepository).putAll(written.capture());
+        assertEquals(1, written.getValue().size());
+        assertEquals("Second", written.getValue().get(0).get("name").s());
+        verify(watchlistService).invalidate("u1");
+    }
+
+    @Test
+    void failuresAreReportedByTheirPositionInTheBody() {
+        // Everything sent for u2/w2 comes back unprocessed
+        when(watchlistRepository.putAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ImportSummary summary = importService.importRecords(Flux.just(
+                user("u1"),
+                watchlist("u1", "w1", null),
+                watchlist("u2", "w2", "First"),
+                watchlist("u2", "w2", "Second"))).block();
+
+        assertEquals(1, summary.getUsers());
+        assertEquals(0, summary.getWatchlists());
+        assertEquals(3, summary.getFailed());
+        List<ImportSummary.Failure> failures = summary.getFailures();
+        assertEquals(List.of(1L, 2L, 3L), failures.stream().map(ImportSummary.Failure::getIndex).toList());
+        assertEquals("Missing name", failures.get(0).getError());
+        // The superseded record shares the outcome of the one that replaced it
+        assertEquals("u2/w2", failures.get(1).getKey());
+        assertEquals("Still unprocessed after retries", failures.get(1).getError());
+        assertEquals("Still unprocessed after retries", failures.get(2).getError());
+    }
+
+    @Test
+    void aFailedBatchWriteFailsEveryRecordInIt() {
+        when(userRepository.putAll(anyList())).thenThrow(new RuntimeException("service unavailable"));
+
+        ImportSummary summary = importService.importRecords(Flux.just(
+                user("u1"),
+                watchlist("u1", "w1", "Tech"),
+                user("u2"),
+                user("u1"))).block();
+
+        assertEquals(0, summary.getUsers());
+        assertEquals(1, summary.getWatchlists());
+        assertEquals(List.of(0L, 2L, 3L), summary.getFailures().stream().map(ImportSummary.Failure::getIndex).toList());
+        assertEquals("service unavailable", summary.getFailures().get(0).getError());
+    }
+
+    private static ImportRecord user(String userId) {
+        ImportRecord record = new ImportRecord();
+        record.setType("user");
+        record.setUserId(userId);
+        record.setName("Name of " + userId);
+        return record;
+    }
+
+    private static ImportRecord watchlist(String userId, String id, String name) {
+        ImportRecord record = new ImportRecord();
+        record.setType("watchlist");
+        record.setUserId(userId);
+        record.setId(id);
+        record.setName(name);
+        record.setSymbols(List.of("AAPL", "MSFT"));
+        return record;
+    }
+}
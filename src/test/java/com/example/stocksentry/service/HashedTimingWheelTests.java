@@ -0,0 +1,98 @@
+package com.example.stocksentry.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HashedTimingWheelTests {
+
+    // Advances until the item comes due and returns the tick it fired on (1-based)
+    private static <T> long ticksUntilDue(HashedTimingWheel<T> wheel, T item, long limit) {
+        List<T> due = new ArrayList<>();
+        for (long tick = 1; tick <= limit; tick++) {
+            wheel.advance(due::add);
+            if (due.contains(item)) {
+                return tick;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void itemShorterThanOneTurnFiresOnItsTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(8);
+        wheel.schedule("a", 3);
+        assertEquals(3, ticksUntilDue(wheel, "a", 100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void delayEqualToWheelSizeWaitsOneFullTurn() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(8);
+        wheel.schedule("a", 8);
+        assertEquals(8, ticksUntilDue(wheel, "a", 100));
+    }
+
+    @Test
+    void delaysLongerThanTheWheelCountRounds() {
+        for (long delay : new long[]{9, 16, 17, 23, 64, 65}) {
+            HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(8);
+            wheel.schedule(delay, delay);
+            assertEquals(delay, ticksUntilDue(wheel, delay, 1000), "delay " + delay);
+        }
+    }
+
+    @Test
+    void itemsSharingASlotOnDifferentRoundsFireSeparately() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(4);
+        wheel.schedule("near", 2);
+        wheel.schedule("far", 10);
+        List<String> fired = new ArrayList<>();
+        List<Long> ticks = new ArrayList<>();
+        for (long tick = 1; tick <= 12; tick++) {
+            long current = tick;
+            wheel.advance(item -> {
+                fired.add(item);
+                ticks.add(current);
+            });
+        }
+        assertEquals(List.of("near", "far"), fired);
+        assertEquals(List.of(2L, 10L), ticks);
+    }
+
+    @Test
+    void scheduleAfterAdvancingIsRelativeToTheCurrentTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(8);
+        for (int i = 0; i < 5; i++) {
+            wheel.advance(item -> { });
+        }
+        wheel.schedule("a", 12);
+        assertEquals(12, ticksUntilDue(wheel, "a", 100));
+    }
+
+    @Test
+    void zeroDelayFiresOnTheNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(8);
+        wheel.schedule("a", 0);
+        assertEquals(1, ticksUntilDue(wheel, "a", 100));
+    }
+
+    @Test
+    void consumerCanRescheduleIntoTheSameSlot() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(4);
+        wheel.schedule("a", 4);
+        List<Long> fired = new ArrayList<>();
+        for (long tick = 1; tick <= 12; tick++) {
+            long current = tick;
+            wheel.advance(item -> {
+                fired.add(current);
+                wheel.schedule(item, 4);
+            });
+        }
+        assertEquals(List.of(4L, 8L, 12L), fired);
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.stocksentry.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordAutomatonTests {
+
+    private static KeywordAutomaton automaton(String... termsAndCategories) {
+        Map<String, String> dictionary = new LinkedHashMap<>();
+        for (int i = 0; i < termsAndCategories.length; i += 2) {
+            dictionary.put(termsAndCategories[i], termsAndCategories[i + 1]);
+        }
+        return KeywordAutomaton.compile(dictionary);
+    }
+
+    private static Set<String> matches(KeywordAutomaton automaton, String text) {
+        return automaton.categoriesOf(automaton.match(text));
+    }
+
+    @Test
+    void overlappingTermsAllMatch() {
+        // "he", "she", "hers" overlap in "ushers"; every one must be reported through the failure links
+        KeywordAutomaton automaton = automaton("he", "HE", "she", "SHE", "hers", "HERS", "his", "HIS");
+        assertEquals(Set.of("HE", "SHE", "HERS"), matches(automaton, "ushers"));
+    }
+
+    @Test
+    void termInsideLongerTermMatchesBoth() {
+        KeywordAutomaton automaton = automaton("merger", "MERGER", "merger agreement", "DEAL");
+        assertEquals(Set.of("MERGER", "DEAL"), matches(automaton, "Board approves merger agreement"));
+        assertEquals(Set.of("MERGER"), matches(automaton, "Board rejects merger"));
+    }
+
+    @Test
+    void matchingIgnoresCase() {
+        KeywordAutomaton automaton = automaton("Earnings", "EARNINGS");
+        assertEquals(Set.of("EARNINGS"), matches(automaton, "EARNINGS beat estimates"));
+        assertEquals(Set.of("EARNINGS"), matches(automaton, "quarterly earnings"));
+        assertEquals(Set.of("EARNINGS"), matches(automaton, "eArNiNgS"));
+    }
+
+    @Test
+    void termsMatchAsSubstringsWithoutWordBoundaries() {
+        // The dictionary is documented as "anywhere in the title or description"
+        KeywordAutomaton automaton = automaton("merger", "MERGER");
+        assertEquals(Set.of("MERGER"), matches(automaton, "premergers"));
+        assertEquals(Set.of("MERGER"), matches(automaton, "merger."));
+        assertEquals(Set.of(), matches(automaton, "merge r"));
+    }
+
+    @Test
+    void noMatchAndNullInput() {
+        KeywordAutomaton automaton = automaton("acquisition", "ACQUISITION");
+        assertEquals(0L, automaton.match("Shares flat in quiet trading"));
+        assertEquals(0L, automaton.match(null));
+        assertEquals(0L, automaton.match(""));
+    }
+
+    @Test
+    void titleAndDescriptionAreJoinedBySpace() {
+        KeywordAutomaton automaton = automaton("stock split", "SPLIT", "cksp", "GLUED");
+        // A term spanning the boundary matches as if the two were separated by one space
+        assertEquals(Set.of("SPLIT"), automaton.categoriesOf(automaton.match("Company announces stock", "split")));
+        // ...but the two are never glued together
+        assertEquals(Set.of(), automaton.categoriesOf(automaton.match("stoc", "kspl")));
+    }
+
+    @Test
+    void termsSharingACategoryShareOneBit() {
+        KeywordAutomaton automaton = automaton("merger", "MERGER", "merges with", "MERGER", "earnings", "EARNINGS");
+        assertEquals(2, automaton.getCategories().size());
+        long mask = automaton.match("Acme merges with Globex after earnings");
+        assertEquals(Set.of("MERGER", "EARNINGS"), automaton.categoriesOf(mask));
+    }
+
+    @Test
+    void rejectsMoreThanSixtyFourCategories() {
+        Map<String, String> dictionary = new LinkedHashMap<>();
+        for (int i = 0; i <= Long.SIZE; i++) {
+            dictionary.put("term" + i, "CATEGORY" + i);
+        }
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.compile(dictionary));
+        assertTrue(e.getMessage().contains("64"));
+    }
+}
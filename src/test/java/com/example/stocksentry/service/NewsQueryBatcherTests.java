@@ -0,0 +1,109 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NewsQueryBatcherTests {
+
+    // Same measure as the batcher: URL-encoded, with spaces sent as %20
+    private static int encodedLength(String query) {
+        return URLEncoder.encode(query, StandardCharsets.UTF_8).replace("+", "%20").length();
+    }
+
+    private static List<String> symbols(int count, String prefix) {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            symbols.add(prefix + i);
+        }
+        return symbols;
+    }
+
+    @Test
+    void respectsMaxSymbolsPerBatch() {
+        List<List<String>> batches = NewsQueryBatcher.partition(symbols(25, "S"), 10);
+        assertEquals(List.of(10, 10, 5), batches.stream().map(List::size).toList());
+    }
+
+    @Test
+    void everyQueryStaysUnderTheLengthLimit() {
+        // Long, quoted symbols hit the length limit well before the symbol count
+        List<String> symbols = symbols(200, "LONG.SYMBOL.NAME-");
+        List<List<String>> batches = NewsQueryBatcher.partition(symbols, 100);
+        assertTrue(batches.size() > 2);
+        List<String> flattened = new ArrayList<>();
+        for (List<String> batch : batches) {
+            assertTrue(encodedLength(NewsQueryBatcher.buildQuery(batch)) <= NewsQueryBatcher.MAX_QUERY_LENGTH,
+                    "batch " + batch);
+            flattened.addAll(batch);
+        }
+        // Order is kept and nothing is dropped or duplicated
+        assertEquals(symbols, flattened);
+    }
+
+    @Test
+    void batchesAreFilledUpToTheLimit() {
+        List<List<String>> batches = NewsQueryBatcher.partition(symbols(200, "LONG.SYMBOL.NAME-"), 100);
+        for (int i = 0; i < batches.size() - 1; i++) {
+            List<String> withNext = new ArrayList<>(batches.get(i));
+            withNext.add(batches.get(i + 1).get(0));
+            assertTrue(encodedLength(NewsQueryBatcher.buildQuery(withNext)) > NewsQueryBatcher.MAX_QUERY_LENGTH);
+        }
+    }
+
+    @Test
+    void oversizedSymbolGetsItsOwnBatch() {
+        String huge = "X".repeat(NewsQueryBatcher.MAX_QUERY_LENGTH + 10);
+        List<List<String>> batches = NewsQueryBatcher.partition(List.of("AAPL", huge, "MSFT"), 10);
+        assertEquals(List.of(List.of("AAPL"), List.of(huge), List.of("MSFT")), batches);
+    }
+
+    @Test
+    void queryQuotesNonAlphanumericSymbols() {
+        assertEquals("AAPL OR \"BRK.B\"", NewsQueryBatcher.buildQuery(List.of("AAPL", "BRK.B")));
+    }
+
+    @Test
+    void demultiplexRoutesArticlesByWholeSymbolMention() {
+        NewsResponse response = new NewsResponse();
+        response.setStatus("ok");
+        response.setArticles(List.of(
+                article("AAPL and MSFT rally", null),
+                article("Snapple sales", "no tickers here"),
+                article("Markets", "msft slips"),
+                article("Berkshire", "BRK.B hits a record")));
+
+        Map<String, NewsResponse> routed = NewsQueryBatcher.demultiplex(List.of("AAPL", "MSFT", "BRK.B"), response);
+
+        assertEquals(List.of("AAPL and MSFT rally"), titles(routed.get("AAPL")));
+        assertEquals(List.of("AAPL and MSFT rally", "Markets"), titles(routed.get("MSFT")));
+        assertEquals(List.of("Berkshire"), titles(routed.get("BRK.B")));
+        assertEquals("ok", routed.get("AAPL").getStatus());
+        assertEquals(1, routed.get("AAPL").getTotalResults());
+    }
+
+    @Test
+    void demultiplexOfNoResponseGivesEmptyResponses() {
+        Map<String, NewsResponse> routed = NewsQueryBatcher.demultiplex(List.of("AAPL"), null);
+        assertTrue(routed.get("AAPL").getArticles().isEmpty());
+    }
+
+    private static NewsResponse.Article article(String title, String description) {
+        NewsResponse.Article article = new NewsResponse.Article();
+        article.setTitle(title);
+        article.setDescription(description);
+        return article;
+    }
+
+    private static List<String> titles(NewsResponse response) {
+        return response.getArticles().stream().map(NewsResponse.Article::getTitle).toList();
+    }
+}
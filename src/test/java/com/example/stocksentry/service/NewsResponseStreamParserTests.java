@@ -0,0 +1,101 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NewsResponseStreamParserTests {
+
+    private static final String BODY = """
+            {"status":"ok","totalResults":2,"articles":[
+              {"source":{"id":null,"name":"Wire","tags":["a",{"deep":[1,2]}]},"author":"A",
+               "title":"Acme earnings beat","description":"Profit up \u2014 \u201cstrong\u201d quarter",
+               "url":"https://example.com/1","urlToImage":null,
+               "publishedAt":"2026-01-02T03:04:05Z","content":"long text [+100 chars]"},
+              {"source":{"id":"x","name":"Y"},"title":"Acme merger","description":null,
+               "url":"https://example.com/2","publishedAt":"2026-01-02T04:00:00Z","content":"..."}
+            ],"extra":{"ignored":true}}
+            """;
+
+    private static Flux<DataBuffer> chunks(String body, int chunkSize) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize))));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    @Test
+    void projectsTheKeptFieldsAndSkipsNestedSource() {
+        NewsResponse response = NewsResponseStreamParser.parse(chunks(BODY, BODY.length()), null).block();
+
+        assertEquals("ok", response.getStatus());
+        assertEquals(2, response.getTotalResults());
+        assertEquals(2, response.getArticles().size());
+        NewsResponse.Article first = response.getArticles().get(0);
+        assertEquals("Acme earnings beat", first.getTitle());
+        assertEquals("Profit up \u2014 \u201cstrong\u201d quarter", first.getDescription());
+        assertEquals("https://example.com/1", first.getUrl());
+        assertEquals("2026-01-02T03:04:05Z", first.getPublishedAt());
+        // content is not materialized
+        assertNull(first.getContent());
+        NewsResponse.Article second = response.getArticles().get(1);
+        assertEquals("Acme merger", second.getTitle());
+        assertNull(second.getDescription());
+    }
+
+    @Test
+    void givesTheSameResultWhateverTheChunkBoundaries() {
+        NewsResponse whole = NewsResponseStreamParser.parse(chunks(BODY, BODY.length()), null).block();
+        // 1-byte chunks also split the multi-byte characters in the description
+        for (int chunkSize : new int[]{1, 2, 3, 7, 64}) {
+            NewsResponse split = NewsResponseStreamParser.parse(chunks(BODY, chunkSize), null).block();
+            assertEquals(whole, split, "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    void truncatedBodyIsAnError() {
+        String truncated = BODY.substring(0, BODY.indexOf("Acme merger"));
+        assertThrows(DecodingException.class,
+                () -> NewsResponseStreamParser.parse(chunks(truncated, 16), null).block());
+    }
+
+    @Test
+    void emptyBodyIsAnError() {
+        assertThrows(DecodingException.class, () -> NewsResponseStreamParser.parse(Flux.empty(), null).block());
+    }
+
+    @Test
+    void malformedBodyIsAnError() {
+        assertThrows(DecodingException.class,
+                () -> NewsResponseStreamParser.parse(chunks("{\"status\":\"ok\",\"articles\":[}", 4), null).block());
+    }
+
+    @Test
+    void stopsAfterTheFirstAcceptedArticle() {
+        NewsResponse response = NewsResponseStreamParser.parse(chunks(BODY, 5),
+                article -> article.getTitle().contains("earnings")).block();
+        assertEquals(1, response.getArticles().size());
+        assertEquals("Acme earnings beat", response.getArticles().get(0).getTitle());
+    }
+
+    @Test
+    void stopPredicateThatNeverAcceptsReadsEverything() {
+        NewsResponse response = NewsResponseStreamParser.parse(chunks(BODY, 5), article -> false).block();
+        assertEquals(2, response.getArticles().size());
+    }
+}
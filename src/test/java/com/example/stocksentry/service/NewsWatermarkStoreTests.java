@@ -0,0 +1,75 @@
+package com.example.stocksentry.service;
+
+import com.example.stocksentry.dto.NewsResponse;
+import com.example.stocksentry.repository.NewsWatermarkRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NewsWatermarkStoreTests {
+
+    private final NewsWatermarkRepository watermarkRepository = mock(NewsWatermarkRepository.class);
+    private final NewsWatermarkStore store = new NewsWatermarkStore(watermarkRepository);
+
+    @Test
+    void completePollMovesTheWatermarkToItsNewestArticle() {
+        store.advance("AAPL", articles("2024-05-01T10:00:00Z", "2024-05-01T11:00:00Z"), false);
+
+        assertEquals(Instant.parse("2024-05-01T11:00:00Z"), store.get("AAPL"));
+        assertNull(store.backlogBefore("AAPL"));
+        verify(watermarkRepository).saveWatermark("AAPL", Instant.parse("2024-05-01T11:00:00Z").toEpochMilli());
+    }
+
+    @Test
+    void truncatedPollsPageDownThroughTheBacklogBeforeTheWatermarkMoves() {
+        when(watermarkRepository.loadWatermark("AAPL")).thenReturn(Instant.parse("2024-05-01T08:00:00Z").toEpochMilli());
+
+        store.advance("AAPL", articles("2024-05-01T12:00:00Z", "2024-05-01T11:00:00Z"), true);
+        assertEquals(Instant.parse("2024-05-01T08:00:00Z"), store.get("AAPL"));
+        assertEquals(Instant.parse("2024-05-01T11:00:00Z"), store.backlogBefore("AAPL"));
+
+        store.advance("AAPL", articles("2024-05-01T10:30:00Z", "2024-05-01T10:00:00Z"), true);
+        assertEquals(Instant.parse("2024-05-01T08:00:00Z"), store.get("AAPL"));
+        assertEquals(Instant.parse("2024-05-01T10:00:00Z"), store.backlogBefore("AAPL"));
+        verify(watermarkRepository, never()).saveWatermark(anyString(), anyLong());
+
+        // The last page of the burst: the watermark jumps to the newest article of the first page
+        store.advance("AAPL", articles("2024-05-01T09:00:00Z"), false);
+        assertNull(store.backlogBefore("AAPL"));
+        assertEquals(Instant.parse("2024-05-01T12:00:00Z"), store.get("AAPL"));
+        verify(watermarkRepository, times(1)).saveWatermark("AAPL", Instant.parse("2024-05-01T12:00:00Z").toEpochMilli());
+    }
+
+    @Test
+    void aTruncatedPageThatDoesNotMoveTheBacklogEndsIt() {
+        List<NewsResponse.Article> sameInstant = articles("2024-05-01T11:00:00Z", "2024-05-01T11:00:00Z");
+
+        store.advance("AAPL", sameInstant, true);
+        assertEquals(Instant.parse("2024-05-01T11:00:00Z"), store.backlogBefore("AAPL"));
+
+        // Paging further would only return the same page again
+        store.advance("AAPL", sameInstant, true);
+        assertNull(store.backlogBefore("AAPL"));
+        assertEquals(Instant.parse("2024-05-01T11:00:00Z"), store.get("AAPL"));
+    }
+
+    private static List<NewsResponse.Article> articles(String... publishedAt) {
+        return Stream.of(publishedAt).map(timestamp -> {
+            NewsResponse.Article article = new NewsResponse.Article();
+            article.setPublishedAt(timestamp);
+            return article;
+        }).toList();
+    }
+}
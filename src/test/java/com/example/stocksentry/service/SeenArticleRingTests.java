@@ -0,0 +1,60 @@
+package com.example.stocksentry.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeenArticleRingTests {
+
+    private static final long MAX_AGE = 3600;
+    // 2040-01-01T00:00:00Z, past the 32-bit epoch-seconds limit
+    private static final long AFTER_2038 = 2208988800L;
+
+    @Test
+    void addedHashIsSeenUntilItAgesOut() {
+        SeenArticleStore.Ring ring = new SeenArticleStore.Ring(4);
+        assertTrue(ring.add(1L, 1000, MAX_AGE));
+        assertFalse(ring.add(1L, 1000 + MAX_AGE, MAX_AGE));
+        assertTrue(ring.contains(1L, 1000 + MAX_AGE, MAX_AGE));
+        assertFalse(ring.contains(1L, 1001 + MAX_AGE, MAX_AGE));
+        // An aged-out hash counts as new again
+        assertTrue(ring.add(1L, 1001 + MAX_AGE, MAX_AGE));
+    }
+
+    @Test
+    void oldestEntryIsOverwrittenWhenFull() {
+        SeenArticleStore.Ring ring = new SeenArticleStore.Ring(3);
+        for (long hash = 1; hash <= 4; hash++) {
+            ring.add(hash, 1000, MAX_AGE);
+        }
+        assertFalse(ring.contains(1L, 1000, MAX_AGE));
+        assertTrue(ring.contains(2L, 1000, MAX_AGE));
+        assertTrue(ring.contains(4L, 1000, MAX_AGE));
+    }
+
+    @Test
+    void timestampsPast2038AgeCorrectly() {
+        SeenArticleStore.Ring ring = new SeenArticleStore.Ring(4);
+        ring.add(7L, AFTER_2038, MAX_AGE);
+        assertTrue(ring.contains(7L, AFTER_2038 + 10, MAX_AGE));
+        assertFalse(ring.contains(7L, AFTER_2038 + MAX_AGE + 1, MAX_AGE));
+    }
+
+    @Test
+    void roundTripsThroughBytesInEvictionOrder() {
+        SeenArticleStore.Ring ring = new SeenArticleStore.Ring(3);
+        for (long hash = 1; hash <= 5; hash++) {
+            ring.add(hash, AFTER_2038 + hash, MAX_AGE);
+        }
+        SeenArticleStore.Ring restored = new SeenArticleStore.Ring(3);
+        restored.load(ring.toBytes());
+        assertArrayEquals(ring.toBytes(), restored.toBytes());
+
+        // The next add evicts the oldest survivor (3) in both
+        restored.add(6L, AFTER_2038 + 6, MAX_AGE);
+        assertFalse(restored.contains(3L, AFTER_2038 + 6, MAX_AGE));
+        assertTrue(restored.contains(4L, AFTER_2038 + 6, MAX_AGE));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.stocksentry.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardCoordinatorTests {
+
+    private static final int SHARDS = 256;
+
+    private static Map<Integer, String> owners(List<String> nodes) {
+        Map<Integer, String> owners = new HashMap<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            owners.put(shard, ShardCoordinator.ownerOf(shard, nodes));
+        }
+        return owners;
+    }
+
+    @Test
+    void ownerDoesNotDependOnNodeOrder() {
+        List<String> nodes = List.of("a", "b", "c", "d");
+        List<String> reversed = new ArrayList<>(nodes);
+        Collections.reverse(reversed);
+        assertEquals(owners(nodes), owners(reversed));
+    }
+
+    @Test
+    void joiningNodeOnlyTakesShardsFromOthers() {
+        Map<Integer, String> before = owners(List.of("a", "b", "c"));
+        Map<Integer, String> after = owners(List.of("a", "b", "c", "d"));
+
+        int moved = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            if (!before.get(shard).equals(after.get(shard))) {
+                // A shard can only move to the newcomer, never between existing nodes
+                assertEquals("d", after.get(shard));
+                moved++;
+            }
+        }
+        // Roughly a quarter of the shards move; allow generous slack for hash variance
+        assertTrue(moved > SHARDS / 8 && moved < SHARDS / 2, "moved " + moved);
+    }
+
+    @Test
+    void leavingNodeOnlyReleasesItsOwnShards() {
+        Map<Integer, String> before = owners(List.of("a", "b", "c", "d"));
+        Map<Integer, String> after = owners(List.of("a", "b", "d"));
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            if (!"c".equals(before.get(shard))) {
+                assertEquals(before.get(shard), after.get(shard), "shard " + shard);
+            } else {
+                assertTrue(List.of("a", "b", "d").contains(after.get(shard)));
+            }
+        }
+    }
+
+    @Test
+    void shardsSpreadAcrossNodes() {
+        Map<String, Integer> counts = new HashMap<>();
+        owners(List.of("a", "b", "c", "d")).values().forEach(owner -> counts.merge(owner, 1, Integer::sum));
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > SHARDS / 8, "count " + count));
+    }
+
+    @Test
+    void noNodesMeansNoOwner() {
+        assertNull(ShardCoordinator.ownerOf(0, List.of()));
+    }
+
+    @Test
+    void shardOfIsStableAndInRange() {
+        for (String symbol : List.of("AAPL", "MSFT", "BRK.B", "", "TSLA")) {
+            int shard = ShardCoordinator.shardOf(symbol, 64);
+            assertTrue(shard >= 0 && shard < 64);
+            assertEquals(shard, ShardCoordinator.shardOf(symbol, 64));
+        }
+        // Pinned so an accidental change of hash, which would reshuffle every lease in a rolling deploy, fails here
+        assertEquals(2429036528689360347L, ShardCoordinator.hash("AAPL"));
+        assertEquals(27, ShardCoordinator.shardOf("AAPL", 64));
+    }
+}